@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.benchmarks;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Compares a JMH JSON result file with a stored JSON baseline, and writes a comparison report.<br>
+ * If the baseline does not exist, the result is saved as the new baseline. A benchmark is reported as a
+ * regression if its score is worse than the baseline by more than the threshold percentage, and the two
+ * scores' error intervals do not overlap. The process exits with status 1 if any benchmark regressed,
+ * so the build fails.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <result.json> <threshold-percent>}
+ */
+public final class BenchmarkComparison {
+
+	private BenchmarkComparison() { }
+
+
+	public static void main(final String[] args) throws IOException {
+
+		if (args.length != 3) {
+			System.err.println("Usage: BenchmarkComparison <baseline.json> <result.json> <threshold-percent>");
+			System.exit(2);
+		}
+
+		Path baselinePath = Path.of(args[0]);
+		Path resultPath = Path.of(args[1]);
+		double threshold = Double.parseDouble(args[2]);
+
+		// if there is no baseline, save this result as the baseline
+		if (!Files.exists(baselinePath)) {
+			if (baselinePath.getParent() != null) {
+				Files.createDirectories(baselinePath.getParent());
+			}
+			Files.copy(resultPath, baselinePath, StandardCopyOption.REPLACE_EXISTING);
+			System.out.println("No benchmark baseline found. Saved " + resultPath + " as baseline " + baselinePath);
+			return;
+		}
+
+		Map<String, Score> baseline = readScores(baselinePath);
+		Map<String, Score> result = readScores(resultPath);
+
+		List<String> report = new ArrayList<>();
+		report.add(String.format("%-72s %22s %22s %9s  %s", "Benchmark", "Baseline", "Current", "Change", "Status"));
+
+		int regressions = 0;
+		for (Map.Entry<String, Score> entry : result.entrySet()) {
+
+			Score current = entry.getValue();
+			Score previous = baseline.get(entry.getKey());
+
+			if (previous == null) {
+				report.add(String.format("%-72s %22s %22s %9s  %s",
+						entry.getKey(), "-", current, "-", "new"));
+				continue;
+			}
+
+			// change as a percentage, positive when the current score is worse
+			double change = (current.score - previous.score) / previous.score * 100.0;
+			double worseBy = current.higherIsBetter() ? -change : change;
+			boolean overlapping = Math.abs(current.score - previous.score) <= current.error + previous.error;
+
+			String status;
+			if (Math.abs(change) <= threshold || overlapping) {
+				status = "unchanged";
+			}
+			else if (worseBy > 0) {
+				status = "REGRESSION";
+				regressions++;
+			}
+			else {
+				status = "improved";
+			}
+
+			report.add(String.format("%-72s %22s %22s %+8.1f%%  %s",
+					entry.getKey(), previous, current, change, status));
+		}
+
+		for (String key : baseline.keySet()) {
+			if (!result.containsKey(key)) {
+				report.add(String.format("%-72s %22s %22s %9s  %s", key, baseline.get(key), "-", "-", "removed"));
+			}
+		}
+
+		report.add(regressions + " regression(s) beyond " + threshold + "% against baseline " + baselinePath);
+
+		// print report, and write it next to the result file
+		report.forEach(System.out::println);
+		Path reportPath = resultPath.resolveSibling("jmh-comparison.txt");
+		Files.write(reportPath, report);
+
+		if (regressions > 0) {
+			System.exit(1);
+		}
+	}
+
+
+	/**
+	 * Read benchmark scores from a JMH JSON result file
+	 *
+	 * @param path the result file
+	 * @return map of benchmark name, including any parameters, to score, sorted by name
+	 * @throws IOException if the file cannot be read
+	 */
+	private static Map<String, Score> readScores(final Path path) throws IOException {
+
+		Map<String, Score> scores = new TreeMap<>();
+
+		try (Reader reader = Files.newBufferedReader(path)) {
+			for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+
+				JsonObject benchmark = element.getAsJsonObject();
+				JsonObject primaryMetric = benchmark.getAsJsonObject("primaryMetric");
+
+				StringBuilder name = new StringBuilder(benchmark.get("benchmark").getAsString());
+
+				// append parameters, so each parameter combination is compared separately
+				if (benchmark.has("params")) {
+					Map<String, String> params = new LinkedHashMap<>();
+					for (Map.Entry<String, JsonElement> param : benchmark.getAsJsonObject("params").entrySet()) {
+						params.put(param.getKey(), param.getValue().getAsString());
+					}
+					name.append(params);
+				}
+
+				JsonElement error = primaryMetric.get("scoreError");
+
+				scores.put(name.toString(), new Score(
+						benchmark.get("mode").getAsString(),
+						primaryMetric.get("score").getAsDouble(),
+						(error == null || error.isJsonNull() || "NaN".equals(error.getAsString())) ? 0.0 : error.getAsDouble(),
+						primaryMetric.get("scoreUnit").getAsString()));
+			}
+		}
+
+		return scores;
+	}
+
+
+	/**
+	 * A benchmark score
+	 *
+	 * @param mode the JMH benchmark mode
+	 * @param score the score
+	 * @param error the score error at 99.9% confidence
+	 * @param unit the score unit
+	 */
+	private record Score(String mode, double score, double error, String unit) {
+
+		boolean higherIsBetter() {
+			return "thrpt".equals(mode);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%.3f +/- %.3f %s", score, error, unit);
+		}
+	}
+
+}
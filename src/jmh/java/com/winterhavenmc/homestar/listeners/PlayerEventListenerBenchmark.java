@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.listeners;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.settings.Settings;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.inventory.PrepareItemCraftEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.inventory.CraftingInventory;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks for player event listener paths that run for every player, whether or not they use a HomeStar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerEventListenerBenchmark {
+
+	private ServerMock server;
+	private PluginMain plugin;
+
+	private PlayerInteractEvent emptyHandEvent;
+	private PlayerInteractEvent otherItemEvent;
+	private PlayerInteractEvent physicalEvent;
+	private PlayerInteractEvent leftClickEvent;
+
+	private PlayerMoveEvent idleMoveEvent;
+	private PlayerMoveEvent warmupMoveEvent;
+
+	private PrepareItemCraftEvent plainCraftEvent;
+	private PrepareItemCraftEvent homeStarCraftEvent;
+
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		server = MockBukkit.mock();
+		plugin = MockBukkit.load(PluginMain.class);
+
+		// register movement listener during warmups, and keep teleports from sending messages or sounds
+		plugin.getConfig().set("cancel-on-movement", true);
+		plugin.getConfig().set("sound-effects", false);
+		plugin.getConfig().set("particle-effects", false);
+		plugin.getConfig().set("log-use", false);
+		plugin.settings = new Settings(plugin.getConfig(), plugin.getLogger());
+		plugin.teleportHandler.reload();
+
+		ItemStack homeStarItem = plugin.homeStarFactory.create(1);
+
+		// interact events rejected before any teleport processing
+		PlayerMock player = server.addPlayer();
+		emptyHandEvent = new PlayerInteractEvent(player, Action.RIGHT_CLICK_AIR, null, null, null, EquipmentSlot.HAND);
+		otherItemEvent = new PlayerInteractEvent(player, Action.RIGHT_CLICK_AIR,
+				new ItemStack(Material.STONE), null, null, EquipmentSlot.HAND);
+		physicalEvent = new PlayerInteractEvent(player, Action.PHYSICAL, homeStarItem, null, null, EquipmentSlot.HAND);
+		leftClickEvent = new PlayerInteractEvent(player, Action.LEFT_CLICK_AIR, homeStarItem, null, null, EquipmentSlot.HAND);
+
+		// move event for a player who is not warming up, while another player is
+		Location idleLocation = player.getLocation();
+		idleMoveEvent = new PlayerMoveEvent(player, idleLocation, idleLocation.clone().add(0.1, 0, 0));
+
+		// move event within the origin block for a player who is warming up
+		PlayerMock warmupPlayer = server.addPlayer();
+		Location origin = warmupPlayer.getLocation();
+		warmupPlayer.setBedSpawnLocation(origin.clone().add(1000, 0, 1000), true);
+		warmupPlayer.getInventory().setItemInMainHand(homeStarItem.clone());
+		plugin.teleportHandler.initiateTeleport(warmupPlayer);
+		warmupMoveEvent = new PlayerMoveEvent(warmupPlayer, origin, origin.clone());
+
+		// craft events with and without a HomeStar in the crafting grid
+		ItemStack[] plainMatrix = new ItemStack[9];
+		Arrays.fill(plainMatrix, new ItemStack(Material.STONE));
+		ItemStack[] homeStarMatrix = plainMatrix.clone();
+		homeStarMatrix[8] = homeStarItem;
+		plainCraftEvent = new PrepareItemCraftEvent(craftingInventory(plainMatrix), null, false);
+		homeStarCraftEvent = new PrepareItemCraftEvent(craftingInventory(homeStarMatrix), null, false);
+	}
+
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		MockBukkit.unmock();
+	}
+
+
+	@Benchmark
+	public void useEmptyHand() {
+		plugin.playerEventListener.onPlayerUse(emptyHandEvent);
+	}
+
+
+	@Benchmark
+	public void useOtherItem() {
+		plugin.playerEventListener.onPlayerUse(otherItemEvent);
+	}
+
+
+	@Benchmark
+	public void useHomeStarPhysical() {
+		plugin.playerEventListener.onPlayerUse(physicalEvent);
+	}
+
+
+	@Benchmark
+	public void useHomeStarLeftClickDisabled() {
+		plugin.playerEventListener.onPlayerUse(leftClickEvent);
+	}
+
+
+	@Benchmark
+	public void moveNotWarmingUp() {
+		server.getPluginManager().callEvent(idleMoveEvent);
+	}
+
+
+	@Benchmark
+	public void moveDuringWarmup() {
+		server.getPluginManager().callEvent(warmupMoveEvent);
+	}
+
+
+	@Benchmark
+	public void craftPrepareWithoutHomeStar() {
+		plugin.playerEventListener.onCraftPrepare(plainCraftEvent);
+	}
+
+
+	@Benchmark
+	public void craftPrepareWithHomeStar() {
+		plugin.playerEventListener.onCraftPrepare(homeStarCraftEvent);
+	}
+
+
+	/**
+	 * Create a crafting inventory holding a fixed crafting grid
+	 *
+	 * @param matrix the crafting grid contents
+	 * @return a crafting inventory that iterates over the grid and ignores result changes
+	 */
+	private static CraftingInventory craftingInventory(final ItemStack[] matrix) {
+		return (CraftingInventory) Proxy.newProxyInstance(
+				CraftingInventory.class.getClassLoader(),
+				new Class<?>[] { CraftingInventory.class },
+				(proxy, method, args) -> switch (method.getName()) {
+					case "iterator" -> Arrays.asList(matrix).iterator();
+					case "getMatrix", "getContents" -> matrix.clone();
+					case "getSize" -> matrix.length;
+					case "hashCode" -> System.identityHashCode(proxy);
+					case "equals" -> proxy == args[0];
+					case "toString" -> "CraftingInventory" + Arrays.toString(matrix);
+					default -> null;
+				});
+	}
+
+}
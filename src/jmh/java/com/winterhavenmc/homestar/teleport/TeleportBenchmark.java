@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.teleport;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.listeners.WarmupListenerGate;
+import com.winterhavenmc.homestar.settings.Settings;
+
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks for cooldown and warmup map operations, and the full teleport initiation path
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeleportBenchmark {
+
+	private ServerMock server;
+	private PluginMain plugin;
+	private Path journalDirectory;
+
+	private CooldownMap cooldownMap;
+	private WarmupMap warmupMap;
+	private DelayedTeleportTask teleportTask;
+
+	private PlayerMock coolingDownPlayer;
+	private PlayerMock warmingUpPlayer;
+	private PlayerMock idlePlayer;
+	private PlayerMock teleportingPlayer;
+
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		server = MockBukkit.mock();
+		plugin = MockBukkit.load(PluginMain.class);
+
+		// no warmup delay, so initiated teleports need no warmup message,
+		// and keep teleports from sending sounds, particles or log messages
+		plugin.getConfig().set("teleport-warmup", 0);
+		plugin.getConfig().set("sound-effects", false);
+		plugin.getConfig().set("particle-effects", false);
+		plugin.getConfig().set("log-use", false);
+		plugin.settings = new Settings(plugin.getConfig(), plugin.getLogger());
+		plugin.teleportHandler.reload();
+
+		// cooldown map with its own journal
+		journalDirectory = Files.createTempDirectory("homestar-benchmark");
+		cooldownMap = new CooldownMap(plugin, new CooldownJournal(journalDirectory.resolve("cooldowns.dat"), plugin.getLogger()));
+		coolingDownPlayer = server.addPlayer();
+		cooldownMap.startPlayerCooldown(coolingDownPlayer);
+
+		// warmup map with one player warming up
+		WarmupScheduler warmupScheduler = new WarmupScheduler(plugin);
+		warmupMap = new WarmupMap(new WarmupListenerGate(plugin));
+		warmingUpPlayer = server.addPlayer();
+		idlePlayer = server.addPlayer();
+		Location destination = warmingUpPlayer.getLocation().add(1000, 0, 1000);
+		teleportTask = new DelayedTeleportTask(plugin, warmupScheduler, warmingUpPlayer, destination, "Home",
+				plugin.homeStarFactory.create(1));
+		warmupMap.startPlayerWarmUp(warmingUpPlayer, teleportTask);
+
+		// player with a bed spawn far away, holding a HomeStar
+		teleportingPlayer = server.addPlayer();
+		teleportingPlayer.setBedSpawnLocation(teleportingPlayer.getLocation().add(1000, 0, 1000), true);
+		teleportingPlayer.getInventory().setItemInMainHand(plugin.homeStarFactory.create(1));
+	}
+
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		cooldownMap.close();
+		MockBukkit.unmock();
+		try (var paths = Files.walk(journalDirectory)) {
+			paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+		}
+	}
+
+
+	@Benchmark
+	public void cooldownStart() {
+		cooldownMap.startPlayerCooldown(coolingDownPlayer);
+	}
+
+
+	@Benchmark
+	public boolean cooldownCheckCoolingDown() {
+		return cooldownMap.isCoolingDown(coolingDownPlayer);
+	}
+
+
+	@Benchmark
+	public boolean cooldownCheckNotCoolingDown() {
+		return cooldownMap.isCoolingDown(idlePlayer);
+	}
+
+
+	@Benchmark
+	public long cooldownTimeRemaining() {
+		return cooldownMap.getCooldownTimeRemaining(coolingDownPlayer);
+	}
+
+
+	@Benchmark
+	public boolean warmupCheckWarmingUp() {
+		return warmupMap.isWarmingUp(warmingUpPlayer);
+	}
+
+
+	@Benchmark
+	public boolean warmupCheckNotWarmingUp() {
+		return warmupMap.isWarmingUp(idlePlayer);
+	}
+
+
+	/**
+	 * Insert and remove a warmup. Includes one server tick, which runs the scheduled
+	 * removal from the teleport initiated set, so scheduled tasks do not accumulate.
+	 */
+	@Benchmark
+	public void warmupStartAndRemove() {
+		warmupMap.startPlayerWarmUp(idlePlayer, teleportTask);
+		warmupMap.removePlayer(idlePlayer);
+		server.getScheduler().performOneTick();
+	}
+
+
+	/**
+	 * Full teleport initiation, from cooldown check through destination resolution to warmup start,
+	 * followed by cancellation. Includes one server tick, so cancelled and scheduled tasks do not accumulate.
+	 */
+	@Benchmark
+	public void initiateAndCancelTeleport() {
+		plugin.teleportHandler.initiateTeleport(teleportingPlayer);
+		plugin.teleportHandler.cancelTeleport(teleportingPlayer);
+		server.getScheduler().performOneTick();
+	}
+
+}
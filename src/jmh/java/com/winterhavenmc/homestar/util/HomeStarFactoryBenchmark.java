@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.util;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import com.winterhavenmc.homestar.PluginMain;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks for HomeStar item identification and creation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HomeStarFactoryBenchmark {
+
+	private PluginMain plugin;
+	private ItemStack homeStarItem;
+	private ItemStack plainNetherStar;
+	private ItemStack otherItem;
+
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		MockBukkit.mock();
+		plugin = MockBukkit.load(PluginMain.class);
+		homeStarItem = plugin.homeStarFactory.create(1);
+		plainNetherStar = new ItemStack(Material.NETHER_STAR);
+		otherItem = new ItemStack(Material.STONE);
+	}
+
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		MockBukkit.unmock();
+	}
+
+
+	@Benchmark
+	public boolean isItemHomeStar() {
+		return plugin.homeStarFactory.isItem(homeStarItem);
+	}
+
+
+	@Benchmark
+	public boolean isItemPlainNetherStar() {
+		return plugin.homeStarFactory.isItem(plainNetherStar);
+	}
+
+
+	@Benchmark
+	public boolean isItemOtherMaterial() {
+		return plugin.homeStarFactory.isItem(otherItem);
+	}
+
+
+	@Benchmark
+	public boolean isItemNull() {
+		return plugin.homeStarFactory.isItem(null);
+	}
+
+
+	@Benchmark
+	public ItemStack createSingle() {
+		return plugin.homeStarFactory.create(1);
+	}
+
+
+	@Benchmark
+	public ItemStack createStack() {
+		return plugin.homeStarFactory.create(64);
+	}
+
+}
@@ -75,7 +75,7 @@ public final class SimpleAPI {
 	 * @deprecated configuration settings can be accessed through plugin manager
 	 */
 	public static boolean isValidIngredient() {
-		return plugin.getConfig().getBoolean("allow-in-recipes");
+		return plugin.settings.isAllowInRecipes();
 	}
 
 
@@ -86,7 +86,7 @@ public final class SimpleAPI {
 	 * @deprecated configuration settings can be accessed through plugin manager
 	 */
 	public static int getCooldownTime() {
-		return plugin.getConfig().getInt("cooldown-time");
+		return plugin.settings.getTeleportCooldown();
 	}
 
 
@@ -97,7 +97,7 @@ public final class SimpleAPI {
 	 * @deprecated configuration settings can be accessed through plugin manager
 	 */
 	public static int getWarmupTime() {
-		return plugin.getConfig().getInt("warmup-time");
+		return plugin.settings.getTeleportWarmup();
 	}
 
 
@@ -108,7 +108,7 @@ public final class SimpleAPI {
 	 * @deprecated configuration settings can be accessed through plugin manager
 	 */
 	public static int getMinSpawnDistance() {
-		return plugin.getConfig().getInt("minimum-distance");
+		return plugin.settings.getMinimumDistance();
 	}
 
 
@@ -119,7 +119,7 @@ public final class SimpleAPI {
 	 * @deprecated configuration settings can be accessed through plugin manager
 	 */
 	public static boolean isCancelledOnDamage() {
-		return plugin.getConfig().getBoolean("cancel-on-damage");
+		return plugin.settings.isCancelOnDamage();
 	}
 
 
@@ -130,7 +130,7 @@ public final class SimpleAPI {
 	 * @deprecated configuration settings can be accessed through plugin manager
 	 */
 	public static boolean isCancelledOnMovement() {
-		return plugin.getConfig().getBoolean("cancel-on-movement");
+		return plugin.settings.isCancelOnMovement();
 	}
 
 
@@ -141,7 +141,7 @@ public final class SimpleAPI {
 	 * @deprecated configuration settings can be accessed through plugin manager
 	 */
 	public static boolean isCancelledOnInteraction() {
-		return plugin.getConfig().getBoolean("cancel-on-interaction");
+		return plugin.settings.isCancelOnInteraction();
 	}
 
 
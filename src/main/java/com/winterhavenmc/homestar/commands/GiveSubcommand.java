@@ -22,18 +22,33 @@ import com.winterhavenmc.homestar.messages.MessageId;
 import com.winterhavenmc.homestar.sounds.SoundId;
 import com.winterhavenmc.homestar.messages.Macro;
 
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 
 final class GiveSubcommand extends AbstractSubcommand {
 
+	// flag argument to drop items that do not fit in a player inventory at the player's feet
+	private static final String DROP_FLAG = "-drop";
+
+	// target argument prefix that selects all players in a world
+	private static final String WORLD_PREFIX = "world:";
+
+	// maximum number of stacks dropped at a player's feet when their inventory is full
+	private static final int MAX_DROPPED_STACKS = 36;
+
+	// pattern of valid player names, used to recognize targets that are not online
+	private static final Pattern PLAYER_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_]{3,16}");
+
 	private final PluginMain plugin;
 
 
@@ -45,10 +60,10 @@ final class GiveSubcommand extends AbstractSubcommand {
 		this.plugin = Objects.requireNonNull(plugin);
 		this.name = "give";
 		this.permissionNode = "homestar.give";
-		this.usageString = "/homestar give <player> [quantity]";
+		this.usageString = "/homestar give <player|@selector|world:name>... [quantity] [-drop]";
 		this.description = MessageId.COMMAND_HELP_GIVE;
 		this.minArgs = 1;
-		this.maxArgs = 2;
+		this.maxArgs = Integer.MAX_VALUE;
 	}
 
 
@@ -66,13 +81,24 @@ final class GiveSubcommand extends AbstractSubcommand {
 					.collect(Collectors.toList());
 		}
 
-		// return some useful quantities
-		else if (args.length == 3) {
-			returnList.add("1");
-			returnList.add("2");
-			returnList.add("3");
-			returnList.add("5");
-			returnList.add("10");
+		// return some useful quantities, more targets and the drop flag
+		else if (args.length > 2) {
+			String prefix = args[args.length - 1];
+			if (prefix.isEmpty()) {
+				returnList.add("1");
+				returnList.add("2");
+				returnList.add("3");
+				returnList.add("5");
+				returnList.add("10");
+			}
+			for (Player player : plugin.getServer().getOnlinePlayers()) {
+				returnList.add(player.getName());
+			}
+			for (World world : plugin.getServer().getWorlds()) {
+				returnList.add(WORLD_PREFIX + world.getName());
+			}
+			returnList.add(DROP_FLAG);
+			returnList.removeIf(option -> !matchPrefix(option, prefix));
 		}
 
 		return returnList;
@@ -97,73 +123,251 @@ final class GiveSubcommand extends AbstractSubcommand {
 			return true;
 		}
 
-		// check max arguments
-		if (args.size() > getMaxArgs()) {
-			plugin.messageBuilder.compose(sender, MessageId.COMMAND_FAIL_ARGS_COUNT_OVER).send();
-			plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
-			displayUsage(sender);
-			return true;
-		}
+		// separate drop flag from target and quantity arguments
+		List<String> targetArgs = new ArrayList<>(args);
+		boolean dropOverflow = targetArgs.removeIf(arg -> arg.equalsIgnoreCase(DROP_FLAG));
 
-		// get passed player name
-		String targetPlayerName = args.get(0);
+		int quantity = 1;
 
-		// try to match target player name to currently online player
-		Player targetPlayer = plugin.getServer().getPlayer(targetPlayerName);
+		// if more than one argument remains, last argument is the quantity unless it is a target
+		if (targetArgs.size() > 1) {
+			String lastArg = targetArgs.get(targetArgs.size() - 1);
+			try {
+				quantity = Integer.parseInt(lastArg);
+				targetArgs.remove(targetArgs.size() - 1);
+			}
+			catch (NumberFormatException e) {
+				// if last argument is neither a number nor a target, send invalid quantity message and return
+				if (!isTargetArgument(lastArg)) {
+					plugin.messageBuilder.compose(sender, MessageId.COMMAND_FAIL_QUANTITY_INVALID).send();
+					plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
+					return true;
+				}
+			}
+		}
+
+		// validate quantity (min = 1, max = configured maximum, or runtime Integer.MAX_VALUE)
+		quantity = Math.max(1, quantity);
+		quantity = Math.min(plugin.settings.getMaxGiveAmount(), quantity);
+
+		// resolve target arguments to online players, counting arguments that match no player
+		Set<Player> targetPlayers = new LinkedHashSet<>();
+		int unmatchedCount = 0;
+		for (String targetArg : targetArgs) {
+			if (!resolveTargets(sender, targetArg, targetPlayers)) {
+				unmatchedCount++;
+			}
+		}
 
-		// if no match, send player not found message and return
-		if (targetPlayer == null) {
+		// if no players matched, send player not found message and return
+		if (targetPlayers.isEmpty()) {
 			plugin.messageBuilder.compose(sender, MessageId.COMMAND_FAIL_PLAYER_NOT_FOUND).send();
 			plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
 			return true;
 		}
 
-		int quantity = 1;
+		// if single player was named, report result for that player
+		if (targetPlayers.size() == 1 && targetArgs.size() == 1) {
+			Player targetPlayer = targetPlayers.iterator().next();
+			giveSingle(sender, targetPlayer, giveItems(targetPlayer, quantity, dropOverflow), quantity);
+			return true;
+		}
 
-		if (args.size() > 1) {
+		// give items to each player, and send one summary message to sender
+		int playerCount = 0;
+		long totalGiven = 0;
+		for (Player targetPlayer : targetPlayers) {
+			int given = giveItems(targetPlayer, quantity, dropOverflow);
+			if (given > 0) {
+				playerCount++;
+				totalGiven += given;
+				notifyTarget(sender, targetPlayer, given);
+			}
+		}
+
+		plugin.messageBuilder.compose(sender, MessageId.COMMAND_SUCCESS_GIVE_MULTIPLE)
+				.setMacro(Macro.ITEM_QUANTITY, totalGiven)
+				.setMacro(Macro.PLAYER_COUNT, playerCount)
+				.setMacro(Macro.SKIPPED_COUNT, targetPlayers.size() - playerCount + unmatchedCount)
+				.send();
+
+		// if giver is in game, play sound
+		if (sender instanceof Player) {
+			plugin.soundConfig.playSound(sender, playerCount > 0 ? SoundId.COMMAND_SUCCESS_GIVE_SENDER : SoundId.COMMAND_FAIL);
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Check if an argument is a target, rather than a quantity. Selectors and world targets are
+	 * recognized by their prefix, and player names by their form, so a player who is not online
+	 * is counted as skipped rather than taken for an invalid quantity.
+	 *
+	 * @param arg the argument to check
+	 * @return {@code true} if the argument is a target, {@code false} if not
+	 */
+	private boolean isTargetArgument(final String arg) {
+		return arg.startsWith("@")
+				|| arg.regionMatches(true, 0, WORLD_PREFIX, 0, WORLD_PREFIX.length())
+				|| PLAYER_NAME_PATTERN.matcher(arg).matches();
+	}
+
+
+	/**
+	 * Resolve a target argument to online players. A target may be a player name, a vanilla entity
+	 * selector such as {@code @a} or {@code @a[distance=..20]}, or {@code world:<name>} for all players in a world.
+	 *
+	 * @param sender the command sender, used as the origin of relative selectors
+	 * @param targetArg the target argument
+	 * @param targetPlayers the set to add matching players to
+	 * @return {@code true} if the argument is valid, {@code false} if it matched no player
+	 */
+	private boolean resolveTargets(final CommandSender sender, final String targetArg, final Set<Player> targetPlayers) {
+
+		// entity selector
+		if (targetArg.startsWith("@")) {
 			try {
-				quantity = Integer.parseInt(args.get(1));
+				boolean matched = false;
+				for (Entity entity : plugin.getServer().selectEntities(sender, targetArg)) {
+					if (entity instanceof Player player) {
+						targetPlayers.add(player);
+						matched = true;
+					}
+				}
+				return matched;
 			}
-			catch (NumberFormatException e) {
-				plugin.messageBuilder.compose(sender, MessageId.COMMAND_FAIL_QUANTITY_INVALID).send();
-				plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
-				return true;
+			catch (IllegalArgumentException e) {
+				return false;
 			}
 		}
 
-		// validate quantity (min = 1, max = configured maximum, or runtime Integer.MAX_VALUE)
-		quantity = Math.max(1, quantity);
-		int maxQuantity = plugin.getConfig().getInt("max-give-amount");
-		if (maxQuantity < 0) {
-			maxQuantity = Integer.MAX_VALUE;
+		// all players in a world
+		if (targetArg.regionMatches(true, 0, WORLD_PREFIX, 0, WORLD_PREFIX.length())) {
+			World world = plugin.getServer().getWorld(targetArg.substring(WORLD_PREFIX.length()));
+			if (world == null || world.getPlayers().isEmpty()) {
+				return false;
+			}
+			targetPlayers.addAll(world.getPlayers());
+			return true;
+		}
+
+		// player name
+		Player player = plugin.getServer().getPlayer(targetArg);
+		if (player == null) {
+			return false;
 		}
-		quantity = Math.min(maxQuantity, quantity);
+		targetPlayers.add(player);
+		return true;
+	}
 
-		// add specified quantity of homestar(s) to player inventory
-		HashMap<Integer, ItemStack> noFit = targetPlayer.getInventory().addItem(plugin.homeStarFactory.create(quantity));
 
-		// count items that didn't fit in inventory
-		int noFitCount = 0;
-		for (int index : noFit.keySet()) {
-			noFitCount += noFit.get(index).getAmount();
+	/**
+	 * Add HomeStar items to a player inventory in a single pass, split into stacks of the item's
+	 * maximum stack size. Only as many stacks as fit in the player inventory are created. If requested,
+	 * items that do not fit are dropped at the player's feet, up to a fixed number of stacks.
+	 * Items that are neither added nor dropped are counted, not created.
+	 *
+	 * @param targetPlayer the player to give items to
+	 * @param quantity the number of items to give
+	 * @param dropOverflow drop items that do not fit in the player inventory
+	 * @return the number of items given, including any dropped
+	 */
+	private int giveItems(final Player targetPlayer, final int quantity, final boolean dropOverflow) {
+
+		ItemStack template = plugin.homeStarFactory.create(1);
+		int maxStackSize = Math.max(1, template.getMaxStackSize());
+
+		// add no more items than fit in player inventory
+		int added = (int) Math.min(quantity, getFreeCapacity(targetPlayer, template, maxStackSize));
+		Map<Integer, ItemStack> noFit = targetPlayer.getInventory().addItem(splitStacks(template, added, maxStackSize));
+		for (ItemStack itemStack : noFit.values()) {
+			added -= itemStack.getAmount();
 		}
 
-		// if remaining items equals quantity given, send player-inventory-full message and return
-		if (noFitCount == quantity) {
-			plugin.messageBuilder.compose(sender, MessageId.COMMAND_FAIL_GIVE_INVENTORY_FULL).send();
-			plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
-			return true;
+		// drop items that didn't fit in inventory, up to the drop limit, if requested
+		int dropped = 0;
+		if (dropOverflow) {
+			dropped = (int) Math.min(quantity - added, (long) MAX_DROPPED_STACKS * maxStackSize);
+			for (ItemStack itemStack : splitStacks(template, dropped, maxStackSize)) {
+				targetPlayer.getWorld().dropItemNaturally(targetPlayer.getLocation(), itemStack);
+			}
+		}
+
+		return added + dropped;
+	}
+
+
+	/**
+	 * Get the number of items of a kind that fit in the storage slots of a player inventory
+	 *
+	 * @param targetPlayer the player
+	 * @param template an item of the kind to count space for
+	 * @param maxStackSize the maximum stack size of the item
+	 * @return the number of items that fit
+	 */
+	private long getFreeCapacity(final Player targetPlayer, final ItemStack template, final int maxStackSize) {
+
+		long capacity = 0;
+		for (ItemStack itemStack : targetPlayer.getInventory().getStorageContents()) {
+			if (itemStack == null || itemStack.getType().isAir()) {
+				capacity += maxStackSize;
+			}
+			else if (template.isSimilar(itemStack)) {
+				capacity += Math.max(0, maxStackSize - itemStack.getAmount());
+			}
+		}
+		return capacity;
+	}
+
+
+	/**
+	 * Split a number of items into stacks of maximum stack size
+	 *
+	 * @param template an item of the kind to split
+	 * @param amount the number of items
+	 * @param maxStackSize the maximum stack size of the item
+	 * @return the stacks
+	 */
+	private ItemStack[] splitStacks(final ItemStack template, final int amount, final int maxStackSize) {
+
+		// divide without adding, so amounts near Integer.MAX_VALUE do not overflow
+		ItemStack[] stacks = new ItemStack[amount / maxStackSize + (amount % maxStackSize == 0 ? 0 : 1)];
+		for (int i = 0; i < stacks.length; i++) {
+			stacks[i] = template.clone();
+			stacks[i].setAmount(Math.min(maxStackSize, amount - i * maxStackSize));
 		}
+		return stacks;
+	}
 
-		// subtract noFitCount from quantity
-		quantity = quantity - noFitCount;
+
+	/**
+	 * Send messages and play sounds for a give to a single player
+	 *
+	 * @param sender the command sender
+	 * @param targetPlayer the player given items
+	 * @param given the number of items given
+	 * @param quantity the number of items requested
+	 */
+	private void giveSingle(final CommandSender sender, final Player targetPlayer, final int given, final int quantity) {
+
+		// if no items were given, send player-inventory-full message and return
+		if (given == 0) {
+			plugin.messageBuilder.compose(sender, MessageId.COMMAND_FAIL_GIVE_INVENTORY_FULL)
+					.setMacro(Macro.ITEM_QUANTITY, quantity)
+					.setMacro(Macro.TARGET_PLAYER, targetPlayer)
+					.send();
+			plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
+			return;
+		}
 
 		// don't display messages if giving item to self
 		if (!sender.getName().equals(targetPlayer.getName())) {
 
 			// send message and play sound to giver
 			plugin.messageBuilder.compose(sender, MessageId.COMMAND_SUCCESS_GIVE)
-					.setMacro(Macro.ITEM_QUANTITY, quantity)
+					.setMacro(Macro.ITEM_QUANTITY, given)
 					.setMacro(Macro.TARGET_PLAYER, targetPlayer)
 					.send();
 
@@ -172,22 +376,41 @@ final class GiveSubcommand extends AbstractSubcommand {
 				plugin.soundConfig.playSound(sender, SoundId.COMMAND_SUCCESS_GIVE_SENDER);
 			}
 
-			// send message to target player
-			plugin.messageBuilder.compose(targetPlayer, MessageId.COMMAND_SUCCESS_GIVE_TARGET)
-					.setMacro(Macro.ITEM_QUANTITY, quantity)
-					.setMacro(Macro.TARGET_PLAYER, sender)
-					.send();
+			// send message and play sound to target player
+			notifyTarget(sender, targetPlayer, given);
 		}
 		else {
 			// send message when giving to self
 			plugin.messageBuilder.compose(sender, MessageId.COMMAND_SUCCESS_GIVE_SELF)
-					.setMacro(Macro.ITEM_QUANTITY, quantity)
+					.setMacro(Macro.ITEM_QUANTITY, given)
 					.send();
+
+			// play sound to target player
+			plugin.soundConfig.playSound(targetPlayer, SoundId.COMMAND_SUCCESS_GIVE_TARGET);
+		}
+	}
+
+
+	/**
+	 * Send message and play sound to a player who was given items
+	 *
+	 * @param sender the command sender
+	 * @param targetPlayer the player given items
+	 * @param given the number of items given
+	 */
+	private void notifyTarget(final CommandSender sender, final Player targetPlayer, final int given) {
+
+		// if giving to self, no target message is needed
+		if (sender.getName().equals(targetPlayer.getName())) {
+			return;
 		}
 
-		// play sound to target player
+		plugin.messageBuilder.compose(targetPlayer, MessageId.COMMAND_SUCCESS_GIVE_TARGET)
+				.setMacro(Macro.ITEM_QUANTITY, given)
+				.setMacro(Macro.TARGET_PLAYER, sender)
+				.send();
+
 		plugin.soundConfig.playSound(targetPlayer, SoundId.COMMAND_SUCCESS_GIVE_TARGET);
-		return true;
 	}
 
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.commands;
+
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.metrics.Histogram;
+import com.winterhavenmc.homestar.metrics.MetricsRegistry;
+import com.winterhavenmc.homestar.metrics.Phase;
+import com.winterhavenmc.homestar.sounds.SoundId;
+import com.winterhavenmc.homestar.messages.MessageId;
+import com.winterhavenmc.homestar.teleport.CancelReason;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+
+final class MetricsSubcommand extends AbstractSubcommand {
+
+	private final PluginMain plugin;
+
+
+	/**
+	 * Class constructor
+	 * @param plugin reference to plugin main class instance
+	 */
+	MetricsSubcommand(final PluginMain plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+		this.name = "metrics";
+		this.permissionNode = "homestar.metrics";
+		this.usageString = "/homestar metrics [reset]";
+		this.description = MessageId.COMMAND_HELP_METRICS;
+		this.maxArgs = 1;
+	}
+
+
+	@Override
+	public List<String> onTabComplete(final CommandSender sender, final Command command,
+									  final String alias, final String[] args) {
+
+		if (args.length == 2 && matchPrefix("reset", args[1])) {
+			return List.of("reset");
+		}
+
+		return Collections.emptyList();
+	}
+
+
+	@Override
+	public boolean onCommand(final CommandSender sender, final List<String> args) {
+
+		// if sender does not have permission to view metrics, send error message and return true
+		if (!sender.hasPermission(permissionNode)) {
+			plugin.messageBuilder.compose(sender, MessageId.PERMISSION_DENIED_METRICS).send();
+			plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
+			return true;
+		}
+
+		// check max arguments
+		if (args.size() > getMaxArgs()) {
+			plugin.messageBuilder.compose(sender, MessageId.COMMAND_FAIL_ARGS_COUNT_OVER).send();
+			plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
+			displayUsage(sender);
+			return true;
+		}
+
+		// if reset argument given, discard recorded metrics, send message and return
+		if (args.size() == 1) {
+			if (!args.get(0).equalsIgnoreCase("reset")) {
+				plugin.messageBuilder.compose(sender, MessageId.COMMAND_FAIL_INVALID_COMMAND).send();
+				plugin.soundConfig.playSound(sender, SoundId.COMMAND_FAIL);
+				displayUsage(sender);
+				return true;
+			}
+			plugin.metricsRegistry.reset();
+			plugin.messageBuilder.compose(sender, MessageId.COMMAND_SUCCESS_METRICS_RESET).send();
+			return true;
+		}
+
+		// output metrics
+		final MetricsRegistry metrics = plugin.metricsRegistry;
+		showHeader(sender, metrics);
+		showTeleportCounts(sender, metrics);
+		for (Phase phase : Phase.values()) {
+			showTiming(sender, phase, metrics.getTiming(phase));
+		}
+		showCancellations(sender, metrics);
+
+		return true;
+	}
+
+
+	private void showHeader(final CommandSender sender, final MetricsRegistry metrics) {
+		sender.sendMessage(ChatColor.DARK_AQUA + "[HomeStar] "
+				+ ChatColor.AQUA + "Metrics for the last " + ChatColor.RESET
+				+ plugin.messageBuilder.getTimeString(System.currentTimeMillis() - metrics.getResetTime()));
+	}
+
+
+	private void showTeleportCounts(final CommandSender sender, final MetricsRegistry metrics) {
+
+		long cancelled = 0;
+		for (CancelReason reason : CancelReason.values()) {
+			cancelled += metrics.getCancelledCount(reason);
+		}
+
+		sender.sendMessage(ChatColor.GREEN + "Teleports started/completed/cancelled: " + ChatColor.RESET + "[ "
+				+ metrics.getStartedCount() + "/"
+				+ metrics.getCompletedCount() + "/"
+				+ cancelled + " ]");
+	}
+
+
+	private void showTiming(final CommandSender sender, final Phase phase, final Histogram histogram) {
+		sender.sendMessage(ChatColor.GREEN + "Time " + phase.getDisplayName() + ": " + ChatColor.RESET
+				+ "count " + histogram.getCount()
+				+ ", p50 " + formatMillis(histogram.getValueAtPercentile(50))
+				+ ", p99 " + formatMillis(histogram.getValueAtPercentile(99))
+				+ ", max " + formatMillis(histogram.getMax()));
+	}
+
+
+	private void showCancellations(final CommandSender sender, final MetricsRegistry metrics) {
+
+		StringJoiner joiner = new StringJoiner(", ");
+		for (CancelReason reason : CancelReason.values()) {
+			joiner.add(reason.getDisplayName() + " " + metrics.getCancelledCount(reason));
+		}
+
+		sender.sendMessage(ChatColor.GREEN + "Cancelled by: " + ChatColor.RESET + joiner);
+	}
+
+
+	/**
+	 * Format a duration in nanoseconds as milliseconds
+	 *
+	 * @param nanos the duration in nanoseconds
+	 * @return the duration formatted as milliseconds, with three decimal places
+	 */
+	private static String formatMillis(final long nanos) {
+		return String.format("%.3fms", nanos / 1_000_000.0);
+	}
+
+}
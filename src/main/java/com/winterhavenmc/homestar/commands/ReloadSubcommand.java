@@ -21,6 +21,7 @@ import com.winterhavenmc.homestar.PluginMain;
 import com.winterhavenmc.homestar.sounds.SoundId;
 
 import com.winterhavenmc.homestar.messages.MessageId;
+import com.winterhavenmc.homestar.settings.Settings;
 import org.bukkit.command.CommandSender;
 
 import java.util.List;
@@ -66,12 +67,27 @@ final class ReloadSubcommand extends AbstractSubcommand {
 		// reload main configuration
 		plugin.reloadConfig();
 
+		// replace settings snapshot with one built from reloaded configuration
+		plugin.settings = new Settings(plugin.getConfig(), plugin.getLogger());
+
+		// apply reloaded settings to teleport handler
+		plugin.teleportHandler.reload();
+
 		// update enabledWorlds list
 		plugin.worldManager.reload();
 
+		// discard world index, so it is rebuilt with reloaded world manager spawn locations
+		plugin.worldIndex.invalidate();
+
 		// reload messages
 		plugin.messageBuilder.reload();
 
+		// discard cached message strings, so they are rebuilt from reloaded messages and settings
+		plugin.messageCache.reload();
+
+		// discard item template, so new items use reloaded settings and messages
+		plugin.homeStarFactory.reload();
+
 		// reload sounds
 		plugin.soundConfig.reload();
 
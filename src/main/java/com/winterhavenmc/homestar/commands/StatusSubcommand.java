@@ -27,8 +27,6 @@ import org.bukkit.command.CommandSender;
 import java.util.List;
 import java.util.Objects;
 
-import static com.winterhavenmc.util.TimeUnit.SECONDS;
-
 
 final class StatusSubcommand extends AbstractSubcommand {
 
@@ -102,76 +100,76 @@ final class StatusSubcommand extends AbstractSubcommand {
 
 	private void showLanguageSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Language: "
-				+ ChatColor.RESET + plugin.getConfig().getString("language"));
+				+ ChatColor.RESET + plugin.settings.getLanguage());
 	}
 
 
 	private void showDefaultMaterialSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Default material: "
-				+ ChatColor.RESET + plugin.getConfig().getString("item-material"));
+				+ ChatColor.RESET + plugin.settings.getItemMaterial());
 	}
 
 
 	private void showMinimumDistanceSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Minimum distance: "
-				+ ChatColor.RESET + plugin.getConfig().getInt("minimum-distance"));
+				+ ChatColor.RESET + plugin.settings.getMinimumDistance());
 	}
 
 
 	private void showTeleportWarmupSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Warmup: " + ChatColor.RESET
-				+ plugin.messageBuilder.getTimeString(SECONDS.toMillis(plugin.getConfig().getInt("teleport-warmup"))));
+				+ plugin.messageBuilder.getTimeString(plugin.settings.getTeleportWarmupMillis()));
 	}
 
 
 	private void showTeleportCooldownSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Cooldown: " + ChatColor.RESET
-				+ plugin.messageBuilder.getTimeString(SECONDS.toMillis(plugin.getConfig().getInt("teleport-cooldown"))));
+				+ plugin.messageBuilder.getTimeString(plugin.settings.getTeleportCooldownMillis()));
 	}
 
 
 	private void showLeftClickAllowedSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Left-click allowed: "
-				+ ChatColor.RESET + plugin.getConfig().getBoolean("left-click"));
+				+ ChatColor.RESET + plugin.settings.isLeftClick());
 	}
 
 
 	private void showShiftClickRequiredSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Shift-click required: "
-				+ ChatColor.RESET + plugin.getConfig().getBoolean("shift-click"));
+				+ ChatColor.RESET + plugin.settings.isShiftClick());
 	}
 
 
 	private void showBedspawnFallback(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Bedspawn fallback enabled: "
-				+ ChatColor.RESET + plugin.getConfig().getBoolean("bedspawn-fallback"));
+				+ ChatColor.RESET + plugin.settings.isBedspawnFallback());
 	}
 
 
 	private void showCancelOnMovementSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN
 				+ "Cancel on damage/movement/interaction: " + ChatColor.RESET + "[ "
-				+ plugin.getConfig().getBoolean("cancel-on-damage") + "/"
-				+ plugin.getConfig().getBoolean("cancel-on-movement") + "/"
-				+ plugin.getConfig().getBoolean("cancel-on-interaction") + " ]");
+				+ plugin.settings.isCancelOnDamage() + "/"
+				+ plugin.settings.isCancelOnMovement() + "/"
+				+ plugin.settings.isCancelOnInteraction() + " ]");
 	}
 
 
 	private void showRemoveFromInventorySetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Remove from inventory: "
-				+ ChatColor.RESET + plugin.getConfig().getString("remove-from-inventory"));
+				+ ChatColor.RESET + plugin.settings.getRemoveFromInventory().getConfigValue());
 	}
 
 
 	private void showAllowInRecipesSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Allow in recipes: "
-				+ ChatColor.RESET + plugin.getConfig().getBoolean("allow-in-recipes"));
+				+ ChatColor.RESET + plugin.settings.isAllowInRecipes());
 	}
 
 
 	private void showLightningSetting(final CommandSender sender) {
 		sender.sendMessage(ChatColor.GREEN + "Lightning: "
-				+ ChatColor.RESET + plugin.getConfig().getBoolean("lightning"));
+				+ ChatColor.RESET + plugin.settings.isLightning());
 	}
 
 
@@ -36,6 +36,13 @@ enum SubcommandType {
 		}
 	},
 
+	METRICS() {
+		@Override
+		Subcommand create(final PluginMain plugin) {
+			return new MetricsSubcommand(plugin);
+		}
+	},
+
 	RELOAD() {
 		@Override
 		Subcommand create(final PluginMain plugin) {
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.listeners;
+
+import com.winterhavenmc.homestar.PluginMain;
+
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+
+import java.util.List;
+
+
+/**
+ * Implements block event listener that discards cached home locations when a bed or respawn anchor
+ * is destroyed or moved
+ */
+public final class BlockEventListener implements Listener {
+
+	// reference to main class
+	private final PluginMain plugin;
+
+
+	/**
+	 * Class constructor for BlockEventListener
+	 *
+	 * @param plugin reference to this plugin's main class
+	 */
+	public BlockEventListener(final PluginMain plugin) {
+
+		// reference to main
+		this.plugin = plugin;
+
+		// register events in this class
+		plugin.getServer().getPluginManager().registerEvents(this, plugin);
+	}
+
+
+	/**
+	 * Block break event handler
+	 *
+	 * @param event BlockBreakEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockBreak(final BlockBreakEvent event) {
+		if (isSpawnBlock(event.getBlock())) {
+			plugin.teleportHandler.invalidateHomeLocationsNear(event.getBlock());
+		}
+	}
+
+
+	/**
+	 * Block burn event handler
+	 *
+	 * @param event BlockBurnEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockBurn(final BlockBurnEvent event) {
+		if (isSpawnBlock(event.getBlock())) {
+			plugin.teleportHandler.invalidateHomeLocationsNear(event.getBlock());
+		}
+	}
+
+
+	/**
+	 * Piston extend event handler
+	 *
+	 * @param event BlockPistonExtendEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockPistonExtend(final BlockPistonExtendEvent event) {
+		invalidateChangedBlocks(event.getBlocks());
+	}
+
+
+	/**
+	 * Piston retract event handler
+	 *
+	 * @param event BlockPistonRetractEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockPistonRetract(final BlockPistonRetractEvent event) {
+		invalidateChangedBlocks(event.getBlocks());
+	}
+
+
+	/**
+	 * Block explode event handler
+	 *
+	 * @param event BlockExplodeEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockExplode(final BlockExplodeEvent event) {
+
+		// the source of a block explosion is usually a bed or respawn anchor, which may already
+		// be removed when this event fires and is not included in the block list
+		plugin.teleportHandler.invalidateHomeLocationsNear(event.getBlock());
+
+		invalidateChangedBlocks(event.blockList());
+	}
+
+
+	/**
+	 * Entity explode event handler
+	 *
+	 * @param event EntityExplodeEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onEntityExplode(final EntityExplodeEvent event) {
+		invalidateChangedBlocks(event.blockList());
+	}
+
+
+	/**
+	 * Discard cached home locations near any bed or respawn anchor in a list of destroyed or moved blocks
+	 *
+	 * @param blocks the destroyed or moved blocks
+	 */
+	private void invalidateChangedBlocks(final List<Block> blocks) {
+		for (Block block : blocks) {
+			if (isSpawnBlock(block)) {
+				plugin.teleportHandler.invalidateHomeLocationsNear(block);
+			}
+		}
+	}
+
+
+	/**
+	 * Check if a block is a bed or respawn anchor
+	 *
+	 * @param block the block to check
+	 * @return {@code true} if the block can hold a player spawn location, {@code false} if not
+	 */
+	private boolean isSpawnBlock(final Block block) {
+		Material material = block.getType();
+		return material == Material.RESPAWN_ANCHOR || Tag.BEDS.isTagged(material);
+	}
+
+}
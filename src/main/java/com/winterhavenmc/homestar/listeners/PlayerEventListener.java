@@ -18,29 +18,29 @@
 package com.winterhavenmc.homestar.listeners;
 
 import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.metrics.Phase;
 import com.winterhavenmc.homestar.sounds.SoundId;
 import com.winterhavenmc.homestar.messages.MessageId;
+import com.winterhavenmc.homestar.settings.Settings;
+import com.winterhavenmc.homestar.teleport.CancelReason;
+import com.winterhavenmc.homestar.teleport.TeleportSession;
 
 import org.bukkit.Material;
 import org.bukkit.block.Block;
-import org.bukkit.block.TileState;
-import org.bukkit.block.data.Openable;
-import org.bukkit.block.data.type.Switch;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
-import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.PrepareItemCraftEvent;
+import org.bukkit.event.player.PlayerBedEnterEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.*;
-
 
 /**
  * Implements player event listener for HomeStar events
@@ -50,15 +50,6 @@ public final class PlayerEventListener implements Listener {
 	// reference to main class
 	private final PluginMain plugin;
 
-	// set of craft table materials
-	private final Set<Material> craftTables =  Set.of(
-					Material.CARTOGRAPHY_TABLE,
-					Material.CRAFTING_TABLE,
-					Material.FLETCHING_TABLE,
-					Material.LOOM,
-					Material.SMITHING_TABLE,
-					Material.STONECUTTER );
-
 
 	/**
 	 * Class constructor for PlayerEventListener
@@ -83,27 +74,62 @@ public final class PlayerEventListener implements Listener {
 	@EventHandler
 	void onPlayerUse(final PlayerInteractEvent event) {
 
+		long startTime = System.nanoTime();
+
+		try {
+			handlePlayerUse(event);
+		}
+		finally {
+			plugin.metricsRegistry.recordTime(Phase.LISTENER, System.nanoTime() - startTime);
+		}
+	}
+
+
+	/**
+	 * Handle a PlayerInteract event, cancelling a warming up player's teleport or initiating a teleport
+	 *
+	 * @param event PlayerInteractEvent handled by this method
+	 */
+	private void handlePlayerUse(final PlayerInteractEvent event) {
+
 		// get player
 		final Player player = event.getPlayer();
 
+		// get player teleport session, looked up once for this event
+		final TeleportSession session = plugin.teleportHandler.getSession(player);
+
+		// interact event fires once for each hand; if an interaction by player was already handled
+		// on this tick, this is the event for the other hand, so only cancel the event if that hand
+		// also holds a HomeStar, so its vanilla action does not run, and return
+		if (session.isInteractionWithin(0)) {
+			if (plugin.homeStarFactory.isItem(event.getItem())) {
+				event.setCancelled(true);
+			}
+			return;
+		}
+
+		// get current settings snapshot
+		final Settings settings = plugin.settings;
+
 		// if cancel-on-interaction is configured true, check if player is in warmup hashmap
-		if (plugin.getConfig().getBoolean("cancel-on-interaction")) {
+		if (settings.isCancelOnInteraction()) {
 
 			// if player is in warmup hashmap, check if they are interacting with a block (not air)
-			if (plugin.teleportHandler.isWarmingUp(player)) {
+			if (session.getState() == TeleportSession.State.WARMING) {
 
 				// if player is interacting with a block, cancel teleport, output message and return
 				if (event.getAction().equals(Action.LEFT_CLICK_BLOCK)
 						|| event.getAction().equals(Action.RIGHT_CLICK_BLOCK)) {
 
-					// if player's last teleport initiated time is less than x ticks (def: 2), do nothing and return
-					// this is a workaround for event double firing (once for each hand) on every player interaction
-					if (!plugin.teleportHandler.isInitiated(player)) {
+					// if player's warmup started less than x ticks ago (def: 2), do nothing and return,
+					// so the click that started the warmup does not also cancel it
+					if (session.isInteractionWithin(settings.getInteractDelay())) {
 						return;
 					}
 
 					// cancel teleport
-					cancelTeleportWithMessage(player, MessageId.TELEPORT_CANCELLED_INTERACTION);
+					session.recordInteraction();
+					cancelTeleportWithMessage(session, MessageId.TELEPORT_CANCELLED_INTERACTION, CancelReason.INTERACTION);
 					return;
 				}
 			}
@@ -125,12 +151,12 @@ public final class PlayerEventListener implements Listener {
 		// if event action is left-click, and left-click is config disabled, do nothing and return
 		if (action.equals(Action.LEFT_CLICK_BLOCK)
 				|| action.equals(Action.LEFT_CLICK_AIR)
-				&& !plugin.getConfig().getBoolean("left-click")) {
+				&& !settings.isLeftClick()) {
 			return;
 		}
 
 		// if player is not warming
-		if (!plugin.teleportHandler.isWarmingUp(player)) {
+		if (session.getState() != TeleportSession.State.WARMING) {
 
 			// get clicked block
 			Block block = event.getClickedBlock();
@@ -138,58 +164,49 @@ public final class PlayerEventListener implements Listener {
 			// check if clicked block is air (null)
 			if (block != null) {
 
-				// check that player is not sneaking, to interact with blocks
-				if (!event.getPlayer().isSneaking()) {
-
-					// allow use of doors, gates and trap doors with item in hand
-					if (block.getBlockData() instanceof Openable) {
-						return;
-					}
-
-					// allow use of switches with item in hand
-					if (block.getBlockData() instanceof Switch) {
-						return;
-					}
-
-					// allow use of containers and other tile entity blocks with item in hand
-					if (block.getState() instanceof TileState) {
-						return;
-					}
-
-					// allow use of crafting tables with item in hand
-					if (craftTables.contains(block.getType())) {
-						return;
-					}
+				// if player is not sneaking, allow use of doors, switches, containers
+				// and other interactable blocks with item in hand
+				if (!event.getPlayer().isSneaking() && settings.isInteractableBlock(block.getType())) {
+					return;
 				}
 			}
 
+			// record interaction as handled, so the event for the other hand is ignored
+			session.recordInteraction();
+
 			// cancel event
 			event.setCancelled(true);
 
 			// if players current world is not enabled in config, do nothing and return
 			if (!plugin.worldManager.isEnabled(player.getWorld())) {
-				plugin.messageBuilder.compose(player, MessageId.TELEPORT_FAIL_WORLD_DISABLED).send();
-				plugin.soundConfig.playSound(player, SoundId.TELEPORT_DENIED_WORLD_DISABLED);
+				if (plugin.feedbackDebouncer.tryAcquire(player, MessageId.TELEPORT_FAIL_WORLD_DISABLED)) {
+					plugin.messageBuilder.compose(player, MessageId.TELEPORT_FAIL_WORLD_DISABLED).send();
+					plugin.soundConfig.playSound(player, SoundId.TELEPORT_DENIED_WORLD_DISABLED);
+				}
 				return;
 			}
 
 			// if player does not have homestar.use permission, send message and return
 			if (!player.hasPermission("homestar.use")) {
-				plugin.messageBuilder.compose(player, MessageId.PERMISSION_DENIED_USE).send();
-				plugin.soundConfig.playSound(player, SoundId.TELEPORT_DENIED_PERMISSION);
+				if (plugin.feedbackDebouncer.tryAcquire(player, MessageId.PERMISSION_DENIED_USE)) {
+					plugin.messageBuilder.compose(player, MessageId.PERMISSION_DENIED_USE).send();
+					plugin.soundConfig.playSound(player, SoundId.TELEPORT_DENIED_PERMISSION);
+				}
 				return;
 			}
 
 			// if shift-click configured and player is not sneaking,
 			// send teleport fail shift-click message, cancel event and return
-			if (plugin.getConfig().getBoolean("shift-click")
+			if (settings.isShiftClick()
 					&& !player.isSneaking()) {
-				plugin.messageBuilder.compose(player, MessageId.TELEPORT_FAIL_SHIFT_CLICK).send();
+				if (plugin.feedbackDebouncer.tryAcquire(player, MessageId.TELEPORT_FAIL_SHIFT_CLICK)) {
+					plugin.messageBuilder.compose(player, MessageId.TELEPORT_FAIL_SHIFT_CLICK).send();
+				}
 				return;
 			}
 
 			// initiate teleport
-			plugin.teleportHandler.initiateTeleport(player);
+			plugin.teleportHandler.initiateTeleport(session);
 		}
 	}
 
@@ -206,7 +223,20 @@ public final class PlayerEventListener implements Listener {
 		Player player = event.getEntity();
 
 		// cancel any pending teleport for player
-		plugin.teleportHandler.cancelTeleport(player);
+		plugin.teleportHandler.cancelTeleport(player, CancelReason.DEATH);
+	}
+
+
+	/**
+	 * Player join event handler
+	 *
+	 * @param event PlayerJoinEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerJoin(final PlayerJoinEvent event) {
+
+		// open teleport session for player
+		plugin.teleportHandler.openSession(event.getPlayer());
 	}
 
 
@@ -220,82 +250,76 @@ public final class PlayerEventListener implements Listener {
 
 		Player player = event.getPlayer();
 
-		// cancel any pending teleport for player
-		plugin.teleportHandler.cancelTeleport(player);
+		// cancel any pending teleport for player and close their teleport session
+		plugin.teleportHandler.closeSession(player);
+
+		// discard cached bed spawn location for player
+		plugin.teleportHandler.invalidateHomeLocation(player);
+
+		// discard recorded feedback times for player
+		plugin.feedbackDebouncer.remove(player);
 	}
 
 
 	/**
-	 * Prepare Item Craft event handler<br>
-	 * Prevents HomeStar items from being used in crafting recipes if configured
+	 * Player bed enter event handler<br>
+	 * Discards cached bed spawn location, because entering a bed may set a new spawn location
 	 *
-	 * @param event PrepareItemCraftEvent handled by this method
+	 * @param event PlayerBedEnterEvent handled by this method
 	 */
-	@EventHandler
-	void onCraftPrepare(final PrepareItemCraftEvent event) {
-
-		// if allow-in-recipes is true in configuration, do nothing and return
-		if (plugin.getConfig().getBoolean("allow-in-recipes")) {
-			return;
-		}
-
-		// if crafting inventory contains HomeStar item, set result item to null
-		for (ItemStack itemStack : event.getInventory()) {
-			if (plugin.homeStarFactory.isItem(itemStack)) {
-				event.getInventory().setResult(null);
-			}
-		}
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerBedEnter(final PlayerBedEnterEvent event) {
+		plugin.teleportHandler.invalidateHomeLocation(event.getPlayer());
 	}
 
 
 	/**
-	 * EntityDamageByEntity event handler<br>
-	 * Cancels pending teleport if player takes damage during warmup
+	 * Player respawn event handler<br>
+	 * Discards cached bed spawn location, because respawning may use up a respawn anchor charge
+	 * or find the bed obstructed
 	 *
-	 * @param event EntityDamageEvent handled by this method
+	 * @param event PlayerRespawnEvent handled by this method
 	 */
-	@EventHandler(ignoreCancelled = true)
-	void onEntityDamage(final EntityDamageEvent event) {
-
-		// if cancel-on-damage configuration is true, check if damaged entity is player
-		if (plugin.getConfig().getBoolean("cancel-on-damage")) {
-
-			Entity entity = event.getEntity();
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerRespawn(final PlayerRespawnEvent event) {
+		plugin.teleportHandler.invalidateHomeLocation(event.getPlayer());
+	}
 
-			// if damaged entity is player, check for pending teleport
-			if (entity instanceof Player player) {
 
-				// if player is in warmup hashmap, cancel teleport and send player message
-				if (plugin.teleportHandler.isWarmingUp(player)) {
-					cancelTeleportWithMessage(player, MessageId.TELEPORT_CANCELLED_DAMAGE);
-				}
-			}
+	/**
+	 * PlayerInteract event handler for respawn anchors<br>
+	 * Discards cached bed spawn location, because using a respawn anchor may set a new spawn location
+	 *
+	 * @param event PlayerInteractEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onRespawnAnchorUse(final PlayerInteractEvent event) {
+		if (event.getAction() == Action.RIGHT_CLICK_BLOCK
+				&& event.getClickedBlock() != null
+				&& event.getClickedBlock().getType() == Material.RESPAWN_ANCHOR) {
+			plugin.teleportHandler.invalidateHomeLocation(event.getPlayer());
 		}
 	}
 
 
 	/**
-	 * PlayerMoveEvent handler<br>
-	 * Cancels teleport if player moves during warmup
+	 * Prepare Item Craft event handler<br>
+	 * Prevents HomeStar items from being used in crafting recipes if configured
 	 *
-	 * @param event PlayerMoveEvent handled by this method
+	 * @param event PrepareItemCraftEvent handled by this method
 	 */
 	@EventHandler
-	void onPlayerMovement(final PlayerMoveEvent event) {
+	void onCraftPrepare(final PrepareItemCraftEvent event) {
 
-		// if cancel-on-movement configuration is false, do nothing and return
-		if (!plugin.getConfig().getBoolean("cancel-on-movement")) {
+		// if allow-in-recipes is true in configuration, do nothing and return
+		if (plugin.settings.isAllowInRecipes()) {
 			return;
 		}
 
-		Player player = event.getPlayer();
-
-		// if player is in warmup hashmap, cancel teleport and send player message
-		if (plugin.teleportHandler.isWarmingUp(player)) {
-
-			// check for player movement other than head turning
-			if (event.getFrom().distance(Objects.requireNonNull(event.getTo())) > 0) {
-				cancelTeleportWithMessage(player, MessageId.TELEPORT_CANCELLED_MOVEMENT);
+		// if crafting inventory contains HomeStar item, set result item to null
+		for (ItemStack itemStack : event.getInventory()) {
+			if (plugin.homeStarFactory.isItem(itemStack)) {
+				event.getInventory().setResult(null);
 			}
 		}
 	}
@@ -304,11 +328,13 @@ public final class PlayerEventListener implements Listener {
 	/**
 	 * Cancel player teleportation, send message and play sound
 	 *
-	 * @param player the player whose teleportation is being cancelled
+	 * @param session the teleport session of the player whose teleportation is being cancelled
 	 * @param messageId the message id of the message sent to the player
+	 * @param reason the reason the teleport is cancelled
 	 */
-	private void cancelTeleportWithMessage(final Player player, final MessageId messageId) {
-		plugin.teleportHandler.cancelTeleport(player);
+	private void cancelTeleportWithMessage(final TeleportSession session, final MessageId messageId, final CancelReason reason) {
+		final Player player = session.getPlayer();
+		plugin.teleportHandler.cancelTeleport(session, reason);
 		plugin.messageBuilder.compose(player, messageId).send();
 		plugin.soundConfig.playSound(player, SoundId.TELEPORT_CANCELLED);
 	}
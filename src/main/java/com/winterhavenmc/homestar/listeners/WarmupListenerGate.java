@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.listeners;
+
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.messages.MessageId;
+import com.winterhavenmc.homestar.sounds.SoundId;
+import com.winterhavenmc.homestar.teleport.CancelReason;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+import java.util.Objects;
+
+
+/**
+ * Registers the warmup cancellation listeners only while at least one player is warming up.<br>
+ * Player movement and entity damage events fire constantly, but only matter to this plugin during a
+ * teleport warmup. The handlers for these events are kept in separate listener objects that are
+ * registered when the first warmup starts and unregistered when the last warmup ends, so the plugin
+ * adds no cost to these events the rest of the time. A listener is only registered if its
+ * cancel-on-movement or cancel-on-damage setting is enabled.
+ */
+public final class WarmupListenerGate {
+
+	// reference to main class
+	private final PluginMain plugin;
+
+	// listener objects registered while gate is open
+	private final MovementListener movementListener = new MovementListener();
+	private final DamageListener damageListener = new DamageListener();
+
+	// true while any player is warming up
+	private boolean open;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to this plugin's main class
+	 */
+	public WarmupListenerGate(final PluginMain plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+	}
+
+
+	/**
+	 * Register the warmup cancellation listeners enabled in the current settings.
+	 * Called when the first player starts warming up; does nothing if already open.
+	 */
+	public synchronized void open() {
+
+		if (open) {
+			return;
+		}
+
+		open = true;
+
+		if (plugin.settings.isCancelOnMovement()) {
+			plugin.getServer().getPluginManager().registerEvents(movementListener, plugin);
+		}
+
+		if (plugin.settings.isCancelOnDamage()) {
+			plugin.getServer().getPluginManager().registerEvents(damageListener, plugin);
+		}
+	}
+
+
+	/**
+	 * Unregister the warmup cancellation listeners.
+	 * Called when the last player stops warming up; does nothing if already closed.
+	 */
+	public synchronized void close() {
+
+		if (!open) {
+			return;
+		}
+
+		open = false;
+
+		HandlerList.unregisterAll(movementListener);
+		HandlerList.unregisterAll(damageListener);
+	}
+
+
+	/**
+	 * Re-register the listeners according to reloaded settings, if the gate is open
+	 */
+	public synchronized void reload() {
+		if (open) {
+			close();
+			open();
+		}
+	}
+
+
+	/**
+	 * Check if the warmup cancellation listeners are registered
+	 *
+	 * @return {@code true} if the gate is open, {@code false} if not
+	 */
+	public synchronized boolean isOpen() {
+		return open;
+	}
+
+
+	/**
+	 * Cancel player teleportation, send message and play sound
+	 *
+	 * @param player the player whose teleportation is being cancelled
+	 * @param messageId the message id of the message sent to the player
+	 * @param reason the reason the teleport is cancelled
+	 */
+	private void cancelTeleportWithMessage(final Player player, final MessageId messageId, final CancelReason reason) {
+		plugin.teleportHandler.cancelTeleport(player, reason);
+		plugin.messageBuilder.compose(player, messageId).send();
+		plugin.soundConfig.playSound(player, SoundId.TELEPORT_CANCELLED);
+	}
+
+
+	/**
+	 * Cancels teleport if player moves during warmup
+	 */
+	private final class MovementListener implements Listener {
+
+		/**
+		 * PlayerMoveEvent handler
+		 *
+		 * @param event PlayerMoveEvent handled by this method
+		 */
+		@EventHandler
+		void onPlayerMovement(final PlayerMoveEvent event) {
+
+			Location to = event.getTo();
+
+			// if destination is null, do nothing and return
+			if (to == null) {
+				return;
+			}
+
+			Player player = event.getPlayer();
+
+			// if player has moved away from warmup origin, cancel teleport and send player message
+			if (plugin.teleportHandler.isMovedDuringWarmup(player, to)) {
+				cancelTeleportWithMessage(player, MessageId.TELEPORT_CANCELLED_MOVEMENT, CancelReason.MOVEMENT);
+			}
+		}
+	}
+
+
+	/**
+	 * Cancels pending teleport if player takes damage during warmup
+	 */
+	private final class DamageListener implements Listener {
+
+		/**
+		 * EntityDamageEvent handler
+		 *
+		 * @param event EntityDamageEvent handled by this method
+		 */
+		@EventHandler(ignoreCancelled = true)
+		void onEntityDamage(final EntityDamageEvent event) {
+
+			// if damaged entity is player in warmup hashmap, cancel teleport and send player message
+			if (event.getEntity() instanceof Player player
+					&& plugin.teleportHandler.isWarmingUp(player)) {
+				cancelTeleportWithMessage(player, MessageId.TELEPORT_CANCELLED_DAMAGE, CancelReason.DAMAGE);
+			}
+		}
+	}
+
+}
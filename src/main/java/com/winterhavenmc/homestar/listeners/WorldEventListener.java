@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.listeners;
+
+import com.winterhavenmc.homestar.PluginMain;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.SpawnChangeEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+
+/**
+ * Implements world event listener that keeps the world index and cached home locations up to date
+ */
+public final class WorldEventListener implements Listener {
+
+	// reference to main class
+	private final PluginMain plugin;
+
+
+	/**
+	 * Class constructor for WorldEventListener
+	 *
+	 * @param plugin reference to this plugin's main class
+	 */
+	public WorldEventListener(final PluginMain plugin) {
+
+		// reference to main
+		this.plugin = plugin;
+
+		// register events in this class
+		plugin.getServer().getPluginManager().registerEvents(this, plugin);
+	}
+
+
+	/**
+	 * World load event handler
+	 *
+	 * @param event WorldLoadEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onWorldLoad(final WorldLoadEvent event) {
+		plugin.worldIndex.invalidate();
+	}
+
+
+	/**
+	 * World unload event handler<br>
+	 * The world is still loaded when this event fires, so the index is also discarded on the following tick
+	 *
+	 * @param event WorldUnloadEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onWorldUnload(final WorldUnloadEvent event) {
+		plugin.worldIndex.invalidate();
+		plugin.taskScheduler.run(plugin.worldIndex::invalidate);
+
+		// discard cached bed spawn locations in unloaded world
+		plugin.teleportHandler.invalidateHomeLocationsInWorld(event.getWorld());
+	}
+
+
+	/**
+	 * Spawn change event handler
+	 *
+	 * @param event SpawnChangeEvent handled by this method
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onSpawnChange(final SpawnChangeEvent event) {
+		plugin.worldIndex.invalidate();
+	}
+
+}
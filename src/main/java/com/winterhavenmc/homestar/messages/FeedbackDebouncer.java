@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.messages;
+
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.util.UuidLongMap;
+
+import org.bukkit.entity.Player;
+
+import java.util.Objects;
+
+
+/**
+ * Suppresses repeated identical feedback to a player, such as the cooldown message and denied sound
+ * sent for every interact event while a player holds down the use button.<br>
+ * The time feedback was last sent is kept for each player and message, in one compact table per message.
+ * Feedback for a message is allowed again once the configured message-debounce window has passed
+ * since it was last sent to that player. A window of zero allows all feedback.
+ * <p>
+ * Methods are synchronized, so feedback may be checked from any region thread.
+ */
+public final class FeedbackDebouncer {
+
+	// reference to plugin main class
+	private final PluginMain plugin;
+
+	// time feedback was last sent, by player, indexed by message id ordinal
+	private final UuidLongMap[] lastSent = new UuidLongMap[MessageId.values().length];
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 */
+	public FeedbackDebouncer(final PluginMain plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+	}
+
+
+	/**
+	 * Check if feedback for a message may be sent to a player, recording the time if it may.
+	 * Callers should skip composing the message and playing any accompanying sound if this returns false.
+	 *
+	 * @param player the player to receive the feedback
+	 * @param messageId the message id of the feedback
+	 * @return {@code true} if the feedback should be sent, {@code false} if it was sent within the debounce window
+	 */
+	public synchronized boolean tryAcquire(final Player player, final MessageId messageId) {
+
+		final long windowMillis = plugin.settings.getMessageDebounceMillis();
+
+		// debouncing disabled
+		if (windowMillis <= 0) {
+			return true;
+		}
+
+		UuidLongMap timestamps = lastSent[messageId.ordinal()];
+		if (timestamps == null) {
+			timestamps = new UuidLongMap();
+			lastSent[messageId.ordinal()] = timestamps;
+		}
+
+		final long now = System.currentTimeMillis();
+		final long lastTime = timestamps.get(player.getUniqueId(), Long.MIN_VALUE);
+
+		if (lastTime != Long.MIN_VALUE && now - lastTime < windowMillis) {
+			return false;
+		}
+
+		timestamps.put(player.getUniqueId(), now);
+		return true;
+	}
+
+
+	/**
+	 * Discard all recorded feedback times for a player
+	 *
+	 * @param player the player whose recorded feedback times are discarded
+	 */
+	public synchronized void remove(final Player player) {
+		for (UuidLongMap timestamps : lastSent) {
+			if (timestamps != null) {
+				timestamps.remove(player.getUniqueId());
+			}
+		}
+	}
+
+}
@@ -25,6 +25,8 @@ public enum Macro {
 	DESTINATION,
 	DURATION,
 	ITEM_QUANTITY,
+	PLAYER_COUNT,
+	SKIPPED_COUNT,
 	TARGET_PLAYER,
 
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.messages;
+
+import com.winterhavenmc.homestar.PluginMain;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Caches strings used in frequently sent messages, so they are not rebuilt for every message.<br>
+ * Duration strings are memoized per whole second, up to the longer of the configured warmup and cooldown times,
+ * and home and spawn display names are resolved once. The cache must be reloaded after the message builder
+ * and settings are reloaded.
+ */
+public final class MessageCache {
+
+	// reference to main class
+	private final PluginMain plugin;
+
+	// duration strings indexed by whole seconds
+	private volatile AtomicReferenceArray<String> durationStrings;
+
+	// cached destination display names
+	private volatile String homeDisplayName;
+	private volatile String spawnDisplayName;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 */
+	public MessageCache(final PluginMain plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+		reload();
+	}
+
+
+	/**
+	 * Discard all cached strings, and size the duration cache for the current warmup and cooldown settings
+	 */
+	public void reload() {
+
+		long maxMillis = Math.max(plugin.settings.getTeleportWarmupMillis(), plugin.settings.getTeleportCooldownMillis());
+
+		// one entry for each whole second up to and including the longest configured duration
+		durationStrings = new AtomicReferenceArray<>((int) Math.min(Integer.MAX_VALUE - 1, Math.max(0L, maxMillis / 1000)) + 1);
+		homeDisplayName = plugin.messageBuilder.getHomeDisplayName().orElse("Home");
+		spawnDisplayName = plugin.messageBuilder.getSpawnDisplayName().orElse("Spawn");
+	}
+
+
+	/**
+	 * Get the formatted string for a duration, truncated to whole seconds.
+	 * Durations of less than one second, negative durations and durations longer than any configured
+	 * duration are formatted on every call.
+	 *
+	 * @param durationMillis the duration in milliseconds
+	 * @return the formatted duration string
+	 */
+	public String getDurationString(final long durationMillis) {
+
+		if (durationMillis < 1000) {
+			return plugin.messageBuilder.getTimeString(durationMillis);
+		}
+
+		final AtomicReferenceArray<String> strings = durationStrings;
+		final long seconds = durationMillis / 1000;
+
+		if (seconds >= strings.length()) {
+			return plugin.messageBuilder.getTimeString(durationMillis);
+		}
+
+		String durationString = strings.get((int) seconds);
+		if (durationString == null) {
+			durationString = plugin.messageBuilder.getTimeString(seconds * 1000);
+			strings.set((int) seconds, durationString);
+		}
+		return durationString;
+	}
+
+
+	/**
+	 * Get the home display name
+	 *
+	 * @return the configured home display name, or "Home" if none is configured
+	 */
+	public String getHomeDisplayName() {
+		return homeDisplayName;
+	}
+
+
+	/**
+	 * Get the spawn display name
+	 *
+	 * @return the configured spawn display name, or "Spawn" if none is configured
+	 */
+	public String getSpawnDisplayName() {
+		return spawnDisplayName;
+	}
+
+}
@@ -25,6 +25,7 @@ public enum MessageId {
 	COMMAND_HELP_DESTROY,
 	COMMAND_HELP_GIVE,
 	COMMAND_HELP_HELP,
+	COMMAND_HELP_METRICS,
 	COMMAND_HELP_RELOAD,
 	COMMAND_HELP_STATUS,
 	COMMAND_HELP_INVALID,
@@ -41,12 +42,15 @@ public enum MessageId {
 
 	COMMAND_SUCCESS_DESTROY,
 	COMMAND_SUCCESS_GIVE,
+	COMMAND_SUCCESS_GIVE_MULTIPLE,
 	COMMAND_SUCCESS_GIVE_SELF,
 	COMMAND_SUCCESS_GIVE_TARGET,
+	COMMAND_SUCCESS_METRICS_RESET,
 	COMMAND_SUCCESS_RELOAD,
 
 	PERMISSION_DENIED_RELOAD,
 	PERMISSION_DENIED_STATUS,
+	PERMISSION_DENIED_METRICS,
 	PERMISSION_DENIED_DESTROY,
 	PERMISSION_DENIED_GIVE,
 	PERMISSION_DENIED_HELP,
@@ -57,12 +61,14 @@ public enum MessageId {
 	TELEPORT_CANCELLED_MOVEMENT,
 	TELEPORT_CANCELLED_NO_ITEM,
 	TELEPORT_COOLDOWN,
+	TELEPORT_FAIL,
 	TELEPORT_FAIL_NO_BEDSPAWN,
 	TELEPORT_FAIL_SHIFT_CLICK,
 	TELEPORT_FAIL_WORLD_DISABLED,
 	TELEPORT_SUCCESS,
 	TELEPORT_MIN_DISTANCE,
 	TELEPORT_WARMUP,
+	TELEPORT_QUEUED,
 
 	LOG_USAGE,
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A fixed size histogram of non-negative long values, with log-linear buckets.<br>
+ * Values below {@code 2^SUB_BUCKET_BITS} are counted exactly. Larger values are counted in buckets that
+ * split each power of two into {@code 2^SUB_BUCKET_BITS} equal parts, so any reported percentile is within
+ * about 3% of the true value, for any magnitude, without allocating on record. Recording is thread safe.
+ */
+public final class Histogram {
+
+	// number of bits of precision kept below the highest set bit of a value
+	private static final int SUB_BUCKET_BITS = 5;
+
+	// number of buckets per power of two
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	// number of buckets needed to cover all non-negative long values
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (Long.SIZE - SUB_BUCKET_BITS);
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+
+	/**
+	 * Record a value. Negative values are recorded as zero.
+	 *
+	 * @param value the value to record
+	 */
+	public void record(final long value) {
+
+		long clampedValue = Math.max(0L, value);
+
+		counts.incrementAndGet(bucketIndex(clampedValue));
+		count.increment();
+		sum.add(clampedValue);
+		max.accumulateAndGet(clampedValue, Math::max);
+	}
+
+
+	/**
+	 * Get the number of recorded values
+	 *
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+
+	/**
+	 * Get the mean of recorded values
+	 *
+	 * @return the mean of recorded values, or zero if no values have been recorded
+	 */
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0.0 : (double) sum.sum() / n;
+	}
+
+
+	/**
+	 * Get the largest recorded value
+	 *
+	 * @return the largest recorded value, or zero if no values have been recorded
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+
+	/**
+	 * Get the value at a percentile of recorded values
+	 *
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the highest value in the bucket containing the percentile, but no more than the largest
+	 * recorded value, or zero if no values have been recorded
+	 */
+	public long getValueAtPercentile(final double percentile) {
+
+		// take a snapshot of bucket counts, so the total and the walk agree
+		long[] snapshot = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+
+		if (total == 0) {
+			return 0L;
+		}
+
+		double clampedPercentile = Math.min(100.0, Math.max(0.0, percentile));
+		long rank = Math.max(1L, (long) Math.ceil(clampedPercentile / 100.0 * total));
+
+		long cumulative = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += snapshot[i];
+			if (cumulative >= rank) {
+				return Math.min(bucketHighestValue(i), max.get());
+			}
+		}
+
+		return max.get();
+	}
+
+
+	/**
+	 * Discard all recorded values
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0L);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0L);
+	}
+
+
+	/**
+	 * Get the index of the bucket that counts a value
+	 *
+	 * @param value a non-negative value
+	 * @return the bucket index
+	 */
+	static int bucketIndex(final long value) {
+
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+
+		return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+	}
+
+
+	/**
+	 * Get the highest value counted by a bucket
+	 *
+	 * @param index the bucket index
+	 * @return the highest value counted by the bucket
+	 */
+	static long bucketHighestValue(final int index) {
+
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+		int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+		long lowestValue = (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+
+		return lowestValue + (1L << shift) - 1;
+	}
+
+}
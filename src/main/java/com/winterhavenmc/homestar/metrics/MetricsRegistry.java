@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.metrics;
+
+import com.winterhavenmc.homestar.teleport.CancelReason;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Registry of runtime teleport metrics, shown by the metrics subcommand.<br>
+ * Records the duration of each {@link Phase} of item use in nanoseconds, counts teleports started and
+ * completed, and counts cancelled teleports by {@link CancelReason}. Recording does not allocate,
+ * and is safe from any thread.
+ */
+public final class MetricsRegistry {
+
+	// histogram of durations for each phase, in nanoseconds
+	private final Map<Phase, Histogram> timings = new EnumMap<>(Phase.class);
+
+	// count of cancelled teleports for each reason
+	private final Map<CancelReason, LongAdder> cancellations = new EnumMap<>(CancelReason.class);
+
+	private final LongAdder teleportsStarted = new LongAdder();
+	private final LongAdder teleportsCompleted = new LongAdder();
+
+	// time metrics were last reset, in milliseconds
+	private volatile long resetTime = System.currentTimeMillis();
+
+
+	/**
+	 * Class constructor
+	 */
+	public MetricsRegistry() {
+		for (Phase phase : Phase.values()) {
+			timings.put(phase, new Histogram());
+		}
+		for (CancelReason reason : CancelReason.values()) {
+			cancellations.put(reason, new LongAdder());
+		}
+	}
+
+
+	/**
+	 * Record the duration of a phase
+	 *
+	 * @param phase the phase
+	 * @param nanos the duration, in nanoseconds
+	 */
+	public void recordTime(final Phase phase, final long nanos) {
+		timings.get(phase).record(nanos);
+	}
+
+
+	/**
+	 * Record the start of a teleport warmup
+	 */
+	public void recordStarted() {
+		teleportsStarted.increment();
+	}
+
+
+	/**
+	 * Record a completed teleport
+	 */
+	public void recordCompleted() {
+		teleportsCompleted.increment();
+	}
+
+
+	/**
+	 * Record a cancelled teleport
+	 *
+	 * @param reason the reason the teleport was cancelled
+	 */
+	public void recordCancelled(final CancelReason reason) {
+		cancellations.get(reason).increment();
+	}
+
+
+	/**
+	 * Get the histogram of durations for a phase
+	 *
+	 * @param phase the phase
+	 * @return the histogram of durations for the phase, in nanoseconds
+	 */
+	public Histogram getTiming(final Phase phase) {
+		return timings.get(phase);
+	}
+
+
+	/**
+	 * Get the number of teleports started
+	 *
+	 * @return the number of teleport warmups started
+	 */
+	public long getStartedCount() {
+		return teleportsStarted.sum();
+	}
+
+
+	/**
+	 * Get the number of teleports completed
+	 *
+	 * @return the number of teleports completed
+	 */
+	public long getCompletedCount() {
+		return teleportsCompleted.sum();
+	}
+
+
+	/**
+	 * Get the number of teleports cancelled for a reason
+	 *
+	 * @param reason the cancel reason
+	 * @return the number of teleports cancelled for the reason
+	 */
+	public long getCancelledCount(final CancelReason reason) {
+		return cancellations.get(reason).sum();
+	}
+
+
+	/**
+	 * Get the time metrics were last reset
+	 *
+	 * @return the time metrics were last reset, in milliseconds
+	 */
+	public long getResetTime() {
+		return resetTime;
+	}
+
+
+	/**
+	 * Discard all recorded metrics
+	 */
+	public void reset() {
+		timings.values().forEach(Histogram::reset);
+		cancellations.values().forEach(LongAdder::reset);
+		teleportsStarted.reset();
+		teleportsCompleted.reset();
+		resetTime = System.currentTimeMillis();
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.metrics;
+
+
+/**
+ * Enum of timed phases of HomeStar item use
+ */
+public enum Phase {
+
+	LISTENER("listener"),
+	DESTINATION("destination"),
+	CHUNK_PRELOAD("chunk preload"),
+	TELEPORT("teleport");
+
+
+	private final String displayName;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param displayName the name shown for this phase in metrics output
+	 */
+	Phase(final String displayName) {
+		this.displayName = displayName;
+	}
+
+
+	/**
+	 * Get the name shown for this phase in metrics output
+	 *
+	 * @return the display name for this phase
+	 */
+	public String getDisplayName() {
+		return displayName;
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Objects;
+
+
+/**
+ * Task scheduler for classic Bukkit servers, where every task runs on the main server thread
+ */
+final class BukkitTaskScheduler implements TaskScheduler {
+
+	// plugin that owns scheduled tasks
+	private final Plugin plugin;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin the plugin that owns scheduled tasks
+	 */
+	BukkitTaskScheduler(final Plugin plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+	}
+
+
+	@Override
+	public Task run(final Runnable task) {
+		BukkitTask bukkitTask = plugin.getServer().getScheduler().runTask(plugin, task);
+		return bukkitTask::cancel;
+	}
+
+
+	@Override
+	public Task runLater(final Runnable task, final long delayTicks) {
+		BukkitTask bukkitTask = plugin.getServer().getScheduler().runTaskLater(plugin, task, delayTicks);
+		return bukkitTask::cancel;
+	}
+
+
+	@Override
+	public Task runRepeating(final Runnable task, final long delayTicks, final long periodTicks) {
+		BukkitTask bukkitTask = plugin.getServer().getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+		return bukkitTask::cancel;
+	}
+
+
+	@Override
+	public Task runAsync(final Runnable task) {
+		BukkitTask bukkitTask = plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task);
+		return bukkitTask::cancel;
+	}
+
+
+	@Override
+	public void runForEntity(final Entity entity, final Runnable task) {
+		if (plugin.getServer().isPrimaryThread()) {
+			task.run();
+		}
+		else {
+			plugin.getServer().getScheduler().runTask(plugin, task);
+		}
+	}
+
+
+	@Override
+	public void runAtLocation(final Location location, final Runnable task) {
+		if (plugin.getServer().isPrimaryThread()) {
+			task.run();
+		}
+		else {
+			plugin.getServer().getScheduler().runTask(plugin, task);
+		}
+	}
+
+
+	@Override
+	public boolean isRegionThreaded() {
+		return false;
+	}
+
+
+	@Override
+	public void cancelTasks() {
+		plugin.getServer().getScheduler().cancelTasks(plugin);
+	}
+
+}
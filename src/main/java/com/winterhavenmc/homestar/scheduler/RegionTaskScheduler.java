@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+
+/**
+ * Task scheduler for region threaded servers, using the global region scheduler for global tasks,
+ * the asynchronous scheduler for asynchronous tasks, entity schedulers for entity tasks, and the region
+ * scheduler for location tasks.<br>
+ * The region threaded scheduler API is not part of the Bukkit API this plugin is built against,
+ * so its methods are looked up reflectively once, and invoked through method handles.
+ */
+final class RegionTaskScheduler implements TaskScheduler {
+
+	// class present only on region threaded servers
+	private static final String REGIONIZED_SERVER_CLASS = "io.papermc.paper.threadedregions.RegionizedServer";
+
+	// scheduler API method handles, or null if the server is not region threaded
+	private static final Handles HANDLES = Handles.find();
+
+	// plugin that owns scheduled tasks
+	private final Plugin plugin;
+
+	// the server's global region scheduler
+	private final Object globalScheduler;
+
+	// the server's asynchronous scheduler
+	private final Object asyncScheduler;
+
+	// the server's region scheduler
+	private final Object regionScheduler;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin the plugin that owns scheduled tasks
+	 * @throws IllegalStateException if the server is not region threaded
+	 */
+	RegionTaskScheduler(final Plugin plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+
+		if (HANDLES == null) {
+			throw new IllegalStateException("The server does not have a region threaded scheduler.");
+		}
+
+		this.globalScheduler = invoke(HANDLES.getGlobalRegionScheduler, plugin.getServer());
+		this.asyncScheduler = invoke(HANDLES.getAsyncScheduler, plugin.getServer());
+		this.regionScheduler = invoke(HANDLES.getRegionScheduler, plugin.getServer());
+	}
+
+
+	/**
+	 * Check if the server is region threaded and its scheduler API was found
+	 *
+	 * @return {@code true} if a region task scheduler can be created, {@code false} if not
+	 */
+	static boolean isSupported() {
+		return HANDLES != null;
+	}
+
+
+	@Override
+	public Task run(final Runnable task) {
+		return wrap(invoke(HANDLES.globalRun, globalScheduler, plugin, consumer(task)));
+	}
+
+
+	@Override
+	public Task runLater(final Runnable task, final long delayTicks) {
+
+		// the global region scheduler requires a delay of at least one tick
+		return wrap(invoke(HANDLES.globalRunDelayed, globalScheduler, plugin, consumer(task), Math.max(1L, delayTicks)));
+	}
+
+
+	@Override
+	public Task runRepeating(final Runnable task, final long delayTicks, final long periodTicks) {
+		return wrap(invoke(HANDLES.globalRunAtFixedRate, globalScheduler, plugin, consumer(task),
+				Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+	}
+
+
+	@Override
+	public Task runAsync(final Runnable task) {
+		return wrap(invoke(HANDLES.asyncRunNow, asyncScheduler, plugin, consumer(task)));
+	}
+
+
+	@Override
+	public void runForEntity(final Entity entity, final Runnable task) {
+
+		if ((boolean) invoke(HANDLES.isOwnedByCurrentRegion, plugin.getServer(), entity)) {
+			task.run();
+			return;
+		}
+
+		Object entityScheduler = invoke(HANDLES.getEntityScheduler, entity);
+
+		// the retired callback is null, so the task is dropped if the entity is removed before it runs
+		invoke(HANDLES.entityRun, entityScheduler, plugin, consumer(task), null);
+	}
+
+
+	@Override
+	public void runAtLocation(final Location location, final Runnable task) {
+
+		if ((boolean) invoke(HANDLES.isLocationOwnedByCurrentRegion, plugin.getServer(), location)) {
+			task.run();
+			return;
+		}
+
+		invoke(HANDLES.regionRun, regionScheduler, plugin, location, consumer(task));
+	}
+
+
+	@Override
+	public boolean isRegionThreaded() {
+		return true;
+	}
+
+
+	@Override
+	public void cancelTasks() {
+		invoke(HANDLES.globalCancelTasks, globalScheduler, plugin);
+	}
+
+
+	/**
+	 * Adapt a runnable to the consumer of scheduled task the region scheduler API expects
+	 *
+	 * @param task the task to run
+	 * @return a consumer that ignores its argument and runs the task
+	 */
+	private static Consumer<Object> consumer(final Runnable task) {
+		Objects.requireNonNull(task);
+		return scheduledTask -> task.run();
+	}
+
+
+	/**
+	 * Wrap a region scheduler scheduled task in a task handle
+	 *
+	 * @param scheduledTask the scheduled task returned by the region scheduler API, may be null
+	 * @return a task handle that cancels the scheduled task
+	 */
+	private static Task wrap(final Object scheduledTask) {
+		if (scheduledTask == null) {
+			return () -> { };
+		}
+		return () -> invoke(HANDLES.taskCancel, scheduledTask);
+	}
+
+
+	/**
+	 * Invoke a scheduler API method handle, rethrowing any checked exception unchecked
+	 *
+	 * @param handle the method handle
+	 * @param arguments the receiver and arguments
+	 * @return the result of the method, or null for a void method
+	 */
+	private static Object invoke(final MethodHandle handle, final Object... arguments) {
+		try {
+			return handle.invokeWithArguments(arguments);
+		}
+		catch (RuntimeException | Error e) {
+			throw e;
+		}
+		catch (Throwable t) {
+			throw new IllegalStateException("A region scheduler method threw an exception.", t);
+		}
+	}
+
+
+	/**
+	 * Method handles for the region threaded scheduler API
+	 */
+	private record Handles(MethodHandle getGlobalRegionScheduler,
+	                       MethodHandle globalRun,
+	                       MethodHandle globalRunDelayed,
+	                       MethodHandle globalRunAtFixedRate,
+	                       MethodHandle globalCancelTasks,
+	                       MethodHandle getAsyncScheduler,
+	                       MethodHandle asyncRunNow,
+	                       MethodHandle getEntityScheduler,
+	                       MethodHandle entityRun,
+	                       MethodHandle isOwnedByCurrentRegion,
+	                       MethodHandle getRegionScheduler,
+	                       MethodHandle regionRun,
+	                       MethodHandle isLocationOwnedByCurrentRegion,
+	                       MethodHandle taskCancel) {
+
+		/**
+		 * Look up the region threaded scheduler API
+		 *
+		 * @return the method handles, or null if the server is not region threaded
+		 */
+		static Handles find() {
+			try {
+				Class.forName(REGIONIZED_SERVER_CLASS);
+
+				Class<?> globalSchedulerClass = Class.forName("io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler");
+				Class<?> asyncSchedulerClass = Class.forName("io.papermc.paper.threadedregions.scheduler.AsyncScheduler");
+				Class<?> entitySchedulerClass = Class.forName("io.papermc.paper.threadedregions.scheduler.EntityScheduler");
+				Class<?> regionSchedulerClass = Class.forName("io.papermc.paper.threadedregions.scheduler.RegionScheduler");
+				Class<?> taskClass = Class.forName("io.papermc.paper.threadedregions.scheduler.ScheduledTask");
+
+				MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+				return new Handles(
+						lookup.findVirtual(Server.class, "getGlobalRegionScheduler",
+								MethodType.methodType(globalSchedulerClass)),
+						lookup.findVirtual(globalSchedulerClass, "run",
+								MethodType.methodType(taskClass, Plugin.class, Consumer.class)),
+						lookup.findVirtual(globalSchedulerClass, "runDelayed",
+								MethodType.methodType(taskClass, Plugin.class, Consumer.class, long.class)),
+						lookup.findVirtual(globalSchedulerClass, "runAtFixedRate",
+								MethodType.methodType(taskClass, Plugin.class, Consumer.class, long.class, long.class)),
+						lookup.findVirtual(globalSchedulerClass, "cancelTasks",
+								MethodType.methodType(void.class, Plugin.class)),
+						lookup.findVirtual(Server.class, "getAsyncScheduler",
+								MethodType.methodType(asyncSchedulerClass)),
+						lookup.findVirtual(asyncSchedulerClass, "runNow",
+								MethodType.methodType(taskClass, Plugin.class, Consumer.class)),
+						lookup.findVirtual(Entity.class, "getScheduler",
+								MethodType.methodType(entitySchedulerClass)),
+						lookup.findVirtual(entitySchedulerClass, "run",
+								MethodType.methodType(taskClass, Plugin.class, Consumer.class, Runnable.class)),
+						lookup.findVirtual(Server.class, "isOwnedByCurrentRegion",
+								MethodType.methodType(boolean.class, Entity.class)),
+						lookup.findVirtual(Server.class, "getRegionScheduler",
+								MethodType.methodType(regionSchedulerClass)),
+						lookup.findVirtual(regionSchedulerClass, "run",
+								MethodType.methodType(taskClass, Plugin.class, Location.class, Consumer.class)),
+						lookup.findVirtual(Server.class, "isOwnedByCurrentRegion",
+								MethodType.methodType(boolean.class, Location.class)),
+						lookup.findVirtual(taskClass, "cancel",
+								MethodType.methodType(Class.forName("io.papermc.paper.threadedregions.scheduler.ScheduledTask$CancelledState")))
+				);
+			}
+			catch (ReflectiveOperationException e) {
+				return null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+
+/**
+ * Schedules plugin tasks, independent of the server's threading model.<br>
+ * On a classic Bukkit server, all tasks run on the main server thread. On a region threaded server,
+ * global tasks run on the global region thread, and entity tasks run on the thread that owns the entity.
+ * All plugin tasks are scheduled through this interface, so the plugin runs on either kind of server.
+ */
+public interface TaskScheduler {
+
+	/**
+	 * Create a task scheduler for the server a plugin is running on
+	 *
+	 * @param plugin the plugin that owns scheduled tasks
+	 * @return a region threaded scheduler if the server is region threaded, otherwise a Bukkit scheduler
+	 */
+	static TaskScheduler create(final Plugin plugin) {
+		return RegionTaskScheduler.isSupported()
+				? new RegionTaskScheduler(plugin)
+				: new BukkitTaskScheduler(plugin);
+	}
+
+
+	/**
+	 * Run a global task on the next tick
+	 *
+	 * @param task the task to run
+	 * @return a handle that may be used to cancel the task
+	 */
+	Task run(Runnable task);
+
+
+	/**
+	 * Run a global task once after a delay
+	 *
+	 * @param task the task to run
+	 * @param delayTicks the number of ticks to wait before running the task
+	 * @return a handle that may be used to cancel the task
+	 */
+	Task runLater(Runnable task, long delayTicks);
+
+
+	/**
+	 * Run a global task repeatedly until cancelled
+	 *
+	 * @param task the task to run
+	 * @param delayTicks the number of ticks to wait before the first run
+	 * @param periodTicks the number of ticks between runs
+	 * @return a handle that may be used to cancel the task
+	 */
+	Task runRepeating(Runnable task, long delayTicks, long periodTicks);
+
+
+	/**
+	 * Run a task asynchronously, off any server tick thread
+	 *
+	 * @param task the task to run
+	 * @return a handle that may be used to cancel the task
+	 */
+	Task runAsync(Runnable task);
+
+
+	/**
+	 * Run a task on the thread that owns an entity. The task runs immediately if the current thread
+	 * owns the entity, otherwise it runs as soon as possible on the owning thread.
+	 * The task is not run if the entity is removed first.
+	 *
+	 * @param entity the entity the task operates on
+	 * @param task the task to run
+	 */
+	void runForEntity(Entity entity, Runnable task);
+
+
+	/**
+	 * Run a task on the thread that owns a location. The task runs immediately if the current thread
+	 * owns the location, otherwise it runs as soon as possible on the owning thread.
+	 *
+	 * @param location the location the task operates on
+	 * @param task the task to run
+	 */
+	void runAtLocation(Location location, Runnable task);
+
+
+	/**
+	 * Check if the server is region threaded
+	 *
+	 * @return {@code true} if tasks may run on more than one server thread, {@code false} if not
+	 */
+	boolean isRegionThreaded();
+
+
+	/**
+	 * Cancel all global tasks scheduled by the plugin
+	 */
+	void cancelTasks();
+
+
+	/**
+	 * Handle for a scheduled task
+	 */
+	interface Task {
+
+		/**
+		 * Cancel this task, if it has not already run
+		 */
+		void cancel();
+	}
+
+}
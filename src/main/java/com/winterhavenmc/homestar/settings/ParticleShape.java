@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.settings;
+
+import java.util.Optional;
+
+
+/**
+ * Enum of values for the particle-shape configuration setting
+ */
+public enum ParticleShape {
+
+	ENDER_SIGNAL("ender-signal"),
+	SPIRAL("spiral"),
+	RING("ring");
+
+
+	private final String configValue;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param configValue the string used for this value in the configuration file
+	 */
+	ParticleShape(final String configValue) {
+		this.configValue = configValue;
+	}
+
+
+	/**
+	 * Get the string used for this value in the configuration file
+	 *
+	 * @return the configuration file string for this value
+	 */
+	public String getConfigValue() {
+		return configValue;
+	}
+
+
+	/**
+	 * Match a configuration file string to an enum member, ignoring case
+	 *
+	 * @param configValue the configuration file string to match
+	 * @return the matching enum member wrapped in an {@link Optional}, or an empty Optional if no match
+	 */
+	public static Optional<ParticleShape> match(final String configValue) {
+
+		if (configValue == null) {
+			return Optional.empty();
+		}
+
+		for (ParticleShape value : values()) {
+			if (value.configValue.equalsIgnoreCase(configValue.trim())) {
+				return Optional.of(value);
+			}
+		}
+
+		return Optional.empty();
+	}
+
+}
@@ -0,0 +1,531 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.settings;
+
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static com.winterhavenmc.util.TimeUnit.SECONDS;
+
+
+/**
+ * Immutable snapshot of the plugin configuration settings.<br>
+ * All values are read and validated once when the snapshot is created, so event handlers
+ * can read typed fields instead of walking the configuration map. A new snapshot is created
+ * on each configuration reload and replaces the previous one in the plugin main class.
+ */
+public final class Settings {
+
+	private final String language;
+	private final Material itemMaterial;
+	private final Set<Material> itemMaterials;
+	private final int minimumDistance;
+	private final double minimumDistanceSquared;
+	private final boolean centerOnBlock;
+	private final int teleportCooldown;
+	private final long teleportCooldownMillis;
+	private final int teleportWarmup;
+	private final long teleportWarmupMillis;
+	private final long teleportWarmupTicks;
+	private final int teleportLimitPerTick;
+	private final long teleportTickBudgetNanos;
+	private final boolean asyncTeleport;
+	private final boolean soundEffects;
+	private final boolean particleEffects;
+	private final ParticleShape particleShape;
+	private final double particleViewDistanceSquared;
+	private final int particleLimit;
+	private final boolean leftClick;
+	private final boolean shiftClick;
+	private final long messageDebounceMillis;
+	private final boolean bedspawnFallback;
+	private final long homeCacheTtlMillis;
+	private final RemoveFromInventory removeFromInventory;
+	private final boolean allowInRecipes;
+	private final boolean cancelOnDamage;
+	private final boolean cancelOnMovement;
+	private final MovementCheck movementCheck;
+	private final double movementTolerance;
+	private final double movementToleranceSquared;
+	private final boolean cancelOnInteraction;
+	private final Set<Material> interactableBlocks;
+	private final int maxGiveAmount;
+	private final boolean fromNether;
+	private final boolean fromEnd;
+	private final boolean lightning;
+	private final boolean logUse;
+	private final int interactDelay;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param config the configuration section to read settings from
+	 * @param logger the logger used to report invalid configuration values
+	 */
+	public Settings(final ConfigurationSection config, final Logger logger) {
+
+		Objects.requireNonNull(config);
+		Objects.requireNonNull(logger);
+
+		this.language = config.getString("language", "en-US");
+		this.itemMaterial = readItemMaterial(config, logger);
+		this.itemMaterials = readItemMaterials(config, logger, itemMaterial);
+
+		this.minimumDistance = readNonNegativeInt(config, logger, "minimum-distance", 0);
+		this.minimumDistanceSquared = (double) minimumDistance * minimumDistance;
+		this.centerOnBlock = config.getBoolean("center-on-block", true);
+
+		this.teleportCooldown = readNonNegativeInt(config, logger, "teleport-cooldown", 0);
+		this.teleportCooldownMillis = SECONDS.toMillis(teleportCooldown);
+
+		this.teleportWarmup = readNonNegativeInt(config, logger, "teleport-warmup", 0);
+		this.teleportWarmupMillis = SECONDS.toMillis(teleportWarmup);
+		this.teleportWarmupTicks = SECONDS.toTicks(teleportWarmup);
+
+		this.teleportLimitPerTick = readNonNegativeInt(config, logger, "teleport-limit-per-tick", 20);
+		this.teleportTickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(readNonNegativeInt(config, logger, "teleport-tick-budget", 10));
+		this.asyncTeleport = config.getBoolean("async-teleport", true);
+
+		this.soundEffects = config.getBoolean("sound-effects", true);
+		this.particleEffects = config.getBoolean("particle-effects", true);
+		this.particleShape = readParticleShape(config, logger);
+		int particleViewDistance = readNonNegativeInt(config, logger, "particle-view-distance", 32);
+		this.particleViewDistanceSquared = (double) particleViewDistance * particleViewDistance;
+		this.particleLimit = readNonNegativeInt(config, logger, "particle-limit", 200);
+		this.leftClick = config.getBoolean("left-click", false);
+		this.shiftClick = config.getBoolean("shift-click", true);
+		this.messageDebounceMillis = readNonNegativeInt(config, logger, "message-debounce", 1000);
+		this.bedspawnFallback = config.getBoolean("bedspawn-fallback", false);
+		this.homeCacheTtlMillis = SECONDS.toMillis(readNonNegativeInt(config, logger, "home-cache-ttl", 60));
+		this.removeFromInventory = readRemoveFromInventory(config, logger);
+		this.allowInRecipes = config.getBoolean("allow-in-recipes", false);
+		this.cancelOnDamage = config.getBoolean("cancel-on-damage", false);
+		this.cancelOnMovement = config.getBoolean("cancel-on-movement", false);
+		this.movementCheck = readMovementCheck(config, logger);
+		this.movementTolerance = Math.max(0.0, config.getDouble("movement-tolerance", 0.5));
+		this.movementToleranceSquared = movementTolerance * movementTolerance;
+		this.cancelOnInteraction = config.getBoolean("cancel-on-interaction", false);
+		this.interactableBlocks = readInteractableBlocks(config, logger);
+
+		// negative max-give-amount means no limit
+		int configMaxGiveAmount = config.getInt("max-give-amount", 2304);
+		this.maxGiveAmount = configMaxGiveAmount < 0 ? Integer.MAX_VALUE : configMaxGiveAmount;
+
+		this.fromNether = config.getBoolean("from-nether", true);
+		this.fromEnd = config.getBoolean("from-end", true);
+		this.lightning = config.getBoolean("lightning", false);
+		this.logUse = config.getBoolean("log-use", true);
+		this.interactDelay = readNonNegativeInt(config, logger, "interact-delay", 2);
+	}
+
+
+	/**
+	 * Read configured item material, falling back to nether star if not a valid item material
+	 *
+	 * @param config the configuration section to read from
+	 * @param logger the logger used to report an invalid value
+	 * @return the configured item material
+	 */
+	private static Material readItemMaterial(final ConfigurationSection config, final Logger logger) {
+
+		// get configured material string, accepting the legacy key used by earlier versions
+		String configMaterialString = config.getString("item-material", config.getString("default-material"));
+
+		// if string is null, use default
+		if (configMaterialString == null) {
+			return Material.NETHER_STAR;
+		}
+
+		// match material to configured string
+		Material configMaterial = Material.matchMaterial(configMaterialString);
+
+		// if no match or unobtainable material, default to nether star
+		if (configMaterial == null || !configMaterial.isItem()) {
+			logger.warning("Configured item-material '" + configMaterialString
+					+ "' is not a valid item material. Using NETHER_STAR.");
+			return Material.NETHER_STAR;
+		}
+
+		return configMaterial;
+	}
+
+
+	/**
+	 * Read configured previous item materials, and combine them with the current item material.
+	 * A configuration written before previous-item-materials existed is read as listing NETHER_STAR,
+	 * the material of all HomeStar items made before item-material could be changed, and a legacy
+	 * default-material setting is also treated as a previous material.
+	 *
+	 * @param config the configuration section to read from
+	 * @param logger the logger used to report invalid values
+	 * @param itemMaterial the current item material
+	 * @return set of all materials that identify a HomeStar item
+	 */
+	private static Set<Material> readItemMaterials(final ConfigurationSection config, final Logger logger,
+	                                               final Material itemMaterial) {
+
+		Set<Material> materials = EnumSet.of(itemMaterial);
+
+		// configurations from before previous-item-materials existed still have nether star items in use
+		List<String> materialStrings = new ArrayList<>(config.isSet("previous-item-materials")
+				? config.getStringList("previous-item-materials")
+				: List.of(Material.NETHER_STAR.name()));
+
+		// items made while the legacy default-material setting was in use are still homestar items
+		String legacyMaterialString = config.getString("default-material");
+		if (legacyMaterialString != null) {
+			materialStrings.add(legacyMaterialString);
+		}
+
+		for (String materialString : materialStrings) {
+			Material material = Material.matchMaterial(materialString);
+			if (material == null || !material.isItem()) {
+				logger.warning("Configured previous-item-materials entry '" + materialString
+						+ "' is not a valid item material and will be ignored.");
+			}
+			else {
+				materials.add(material);
+			}
+		}
+
+		return Collections.unmodifiableSet(materials);
+	}
+
+
+	/**
+	 * Read configured interactable blocks, and combine them with the blocks players may always interact with
+	 * while holding a HomeStar item: doors, trapdoors, gates, buttons, levers, containers and other usable
+	 * block entities, signs, beds and crafting stations. The set is looked up on every item use, so it is
+	 * built once here rather than by inspecting the block state of each clicked block.
+	 *
+	 * @param config the configuration section to read from
+	 * @param logger the logger used to report invalid values
+	 * @return set of block materials a HomeStar item is not used on
+	 */
+	private static Set<Material> readInteractableBlocks(final ConfigurationSection config, final Logger logger) {
+
+		Set<Material> materials = EnumSet.of(
+				// levers, which have no tag
+				Material.LEVER,
+				// containers and other usable block entities
+				Material.CHEST, Material.TRAPPED_CHEST, Material.ENDER_CHEST, Material.BARREL,
+				Material.FURNACE, Material.BLAST_FURNACE, Material.SMOKER,
+				Material.HOPPER, Material.DROPPER, Material.DISPENSER, Material.BREWING_STAND,
+				Material.ENCHANTING_TABLE, Material.BEACON, Material.LECTERN, Material.JUKEBOX, Material.BELL,
+				Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.BEEHIVE, Material.BEE_NEST, Material.SPAWNER,
+				Material.COMMAND_BLOCK, Material.CHAIN_COMMAND_BLOCK, Material.REPEATING_COMMAND_BLOCK,
+				Material.STRUCTURE_BLOCK, Material.JIGSAW, Material.DAYLIGHT_DETECTOR, Material.COMPARATOR,
+				// crafting stations
+				Material.CARTOGRAPHY_TABLE, Material.CRAFTING_TABLE, Material.FLETCHING_TABLE,
+				Material.LOOM, Material.SMITHING_TABLE, Material.STONECUTTER);
+
+		materials.addAll(Tag.DOORS.getValues());
+		materials.addAll(Tag.TRAPDOORS.getValues());
+		materials.addAll(Tag.FENCE_GATES.getValues());
+		materials.addAll(Tag.BUTTONS.getValues());
+		materials.addAll(Tag.SHULKER_BOXES.getValues());
+		materials.addAll(Tag.SIGNS.getValues());
+		materials.addAll(Tag.BEDS.getValues());
+
+		for (String materialString : config.getStringList("interactable-blocks")) {
+			Material material = Material.matchMaterial(materialString);
+			if (material == null || !material.isBlock()) {
+				logger.warning("Configured interactable-blocks entry '" + materialString
+						+ "' is not a valid block material and will be ignored.");
+			}
+			else {
+				materials.add(material);
+			}
+		}
+
+		return Collections.unmodifiableSet(materials);
+	}
+
+
+	/**
+	 * Read configured remove-from-inventory setting, falling back to on-success if not a valid value
+	 *
+	 * @param config the configuration section to read from
+	 * @param logger the logger used to report an invalid value
+	 * @return the configured remove-from-inventory setting
+	 */
+	private static RemoveFromInventory readRemoveFromInventory(final ConfigurationSection config, final Logger logger) {
+
+		String configValue = config.getString("remove-from-inventory");
+
+		if (configValue == null) {
+			return RemoveFromInventory.ON_SUCCESS;
+		}
+
+		return RemoveFromInventory.match(configValue).orElseGet(() -> {
+			logger.warning("Configured remove-from-inventory '" + configValue
+					+ "' is not a valid setting. Using on-success.");
+			return RemoveFromInventory.ON_SUCCESS;
+		});
+	}
+
+
+	/**
+	 * Read configured movement-check setting, falling back to block if not a valid value
+	 *
+	 * @param config the configuration section to read from
+	 * @param logger the logger used to report an invalid value
+	 * @return the configured movement-check setting
+	 */
+	private static MovementCheck readMovementCheck(final ConfigurationSection config, final Logger logger) {
+
+		String configValue = config.getString("movement-check");
+
+		if (configValue == null) {
+			return MovementCheck.BLOCK;
+		}
+
+		return MovementCheck.match(configValue).orElseGet(() -> {
+			logger.warning("Configured movement-check '" + configValue
+					+ "' is not a valid setting. Using block.");
+			return MovementCheck.BLOCK;
+		});
+	}
+
+
+	/**
+	 * Read configured particle-shape setting, falling back to ender-signal if not a valid value
+	 *
+	 * @param config the configuration section to read from
+	 * @param logger the logger used to report an invalid value
+	 * @return the configured particle-shape setting
+	 */
+	private static ParticleShape readParticleShape(final ConfigurationSection config, final Logger logger) {
+
+		String configValue = config.getString("particle-shape");
+
+		if (configValue == null) {
+			return ParticleShape.ENDER_SIGNAL;
+		}
+
+		return ParticleShape.match(configValue).orElseGet(() -> {
+			logger.warning("Configured particle-shape '" + configValue
+					+ "' is not a valid setting. Using ender-signal.");
+			return ParticleShape.ENDER_SIGNAL;
+		});
+	}
+
+
+	/**
+	 * Read a configured integer that may not be negative
+	 *
+	 * @param config the configuration section to read from
+	 * @param logger the logger used to report an invalid value
+	 * @param key the configuration key
+	 * @param defaultValue the value to use if the key is not set
+	 * @return the configured value, or zero if the configured value is negative
+	 */
+	private static int readNonNegativeInt(final ConfigurationSection config, final Logger logger,
+	                                      final String key, final int defaultValue) {
+
+		int value = config.getInt(key, defaultValue);
+
+		if (value < 0) {
+			logger.warning("Configured " + key + " '" + value + "' may not be negative. Using 0.");
+			return 0;
+		}
+
+		return value;
+	}
+
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public Material getItemMaterial() {
+		return itemMaterial;
+	}
+
+	/**
+	 * Check if a material is the configured item material or a previous item material
+	 *
+	 * @param material the material to check
+	 * @return {@code true} if items of the material may be HomeStar items, {@code false} if not
+	 */
+	public boolean isItemMaterial(final Material material) {
+		return itemMaterials.contains(material);
+	}
+
+	/**
+	 * Check if players may interact with a block while holding a HomeStar item, instead of using the item
+	 *
+	 * @param material the material of the clicked block
+	 * @return {@code true} if the HomeStar item is not used on the block, {@code false} if it is
+	 */
+	public boolean isInteractableBlock(final Material material) {
+		return interactableBlocks.contains(material);
+	}
+
+	public int getMinimumDistance() {
+		return minimumDistance;
+	}
+
+	public double getMinimumDistanceSquared() {
+		return minimumDistanceSquared;
+	}
+
+	public boolean isCenterOnBlock() {
+		return centerOnBlock;
+	}
+
+	public int getTeleportCooldown() {
+		return teleportCooldown;
+	}
+
+	public long getTeleportCooldownMillis() {
+		return teleportCooldownMillis;
+	}
+
+	public int getTeleportWarmup() {
+		return teleportWarmup;
+	}
+
+	public long getTeleportWarmupMillis() {
+		return teleportWarmupMillis;
+	}
+
+	public long getTeleportWarmupTicks() {
+		return teleportWarmupTicks;
+	}
+
+	public int getTeleportLimitPerTick() {
+		return teleportLimitPerTick;
+	}
+
+	public long getTeleportTickBudgetNanos() {
+		return teleportTickBudgetNanos;
+	}
+
+	public boolean isAsyncTeleport() {
+		return asyncTeleport;
+	}
+
+	public boolean isSoundEffects() {
+		return soundEffects;
+	}
+
+	public boolean isParticleEffects() {
+		return particleEffects;
+	}
+
+	public ParticleShape getParticleShape() {
+		return particleShape;
+	}
+
+	public double getParticleViewDistanceSquared() {
+		return particleViewDistanceSquared;
+	}
+
+	public int getParticleLimit() {
+		return particleLimit;
+	}
+
+	public boolean isLeftClick() {
+		return leftClick;
+	}
+
+	public boolean isShiftClick() {
+		return shiftClick;
+	}
+
+	public long getMessageDebounceMillis() {
+		return messageDebounceMillis;
+	}
+
+	public boolean isBedspawnFallback() {
+		return bedspawnFallback;
+	}
+
+	public long getHomeCacheTtlMillis() {
+		return homeCacheTtlMillis;
+	}
+
+	public RemoveFromInventory getRemoveFromInventory() {
+		return removeFromInventory;
+	}
+
+	public boolean isAllowInRecipes() {
+		return allowInRecipes;
+	}
+
+	public boolean isCancelOnDamage() {
+		return cancelOnDamage;
+	}
+
+	public boolean isCancelOnMovement() {
+		return cancelOnMovement;
+	}
+
+	public MovementCheck getMovementCheck() {
+		return movementCheck;
+	}
+
+	public double getMovementTolerance() {
+		return movementTolerance;
+	}
+
+	public double getMovementToleranceSquared() {
+		return movementToleranceSquared;
+	}
+
+	public boolean isCancelOnInteraction() {
+		return cancelOnInteraction;
+	}
+
+	public int getMaxGiveAmount() {
+		return maxGiveAmount;
+	}
+
+	public boolean isFromNether() {
+		return fromNether;
+	}
+
+	public boolean isFromEnd() {
+		return fromEnd;
+	}
+
+	public boolean isLightning() {
+		return lightning;
+	}
+
+	public boolean isLogUse() {
+		return logUse;
+	}
+
+	public int getInteractDelay() {
+		return interactDelay;
+	}
+
+}
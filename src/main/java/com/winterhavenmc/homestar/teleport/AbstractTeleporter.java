@@ -20,14 +20,13 @@ package com.winterhavenmc.homestar.teleport;
 import com.winterhavenmc.homestar.PluginMain;
 import com.winterhavenmc.homestar.messages.Macro;
 import com.winterhavenmc.homestar.messages.MessageId;
+import com.winterhavenmc.homestar.metrics.Phase;
 import com.winterhavenmc.homestar.sounds.SoundId;
 
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 
@@ -60,16 +59,12 @@ abstract class AbstractTeleporter {
 			return Optional.empty();
 		}
 
-		// get player bed spawn location
-		Location location = player.getBedSpawnLocation();
+		// get player bed spawn location, cached to avoid validating bed on every use
+		long startTime = System.nanoTime();
+		Optional<Location> location = plugin.teleportHandler.getHomeLocation(player);
+		plugin.metricsRegistry.recordTime(Phase.DESTINATION, System.nanoTime() - startTime);
 
-		// if location is null, return empty optional
-		if (location == null) {
-			return Optional.empty();
-		}
-
-		// return optional wrapped destination for player bed spawn location
-		return Optional.of(location);
+		return location;
 	}
 
 
@@ -87,7 +82,9 @@ abstract class AbstractTeleporter {
 		}
 
 		// get spawn location for player
+		long startTime = System.nanoTime();
 		Location location = plugin.worldManager.getSpawnLocation(player);
+		plugin.metricsRegistry.recordTime(Phase.DESTINATION, System.nanoTime() - startTime);
 
 		// if location is null, return empty optional
 		if (location == null) {
@@ -127,32 +124,8 @@ abstract class AbstractTeleporter {
 			return Optional.empty();
 		}
 
-		// create list to store normal environment worlds
-		List<World> normalWorlds = new ArrayList<>();
-
-		// iterate through all server worlds
-		for (World checkWorld : plugin.getServer().getWorlds()) {
-
-			// if world is normal environment, try to match name to passed world
-			if (checkWorld.getEnvironment().equals(World.Environment.NORMAL)) {
-
-				// check if normal world matches passed world minus nether/end suffix
-				if (checkWorld.getName().equals(player.getWorld().getName().replaceFirst("(_nether$|_the_end$)", ""))) {
-					return Optional.of(plugin.worldManager.getSpawnLocation(checkWorld));
-				}
-
-				// if no match, add to list of normal worlds
-				normalWorlds.add(checkWorld);
-			}
-		}
-
-		// if only one normal world exists, return that world
-		if (normalWorlds.size() == 1) {
-			return Optional.of(plugin.worldManager.getSpawnLocation(normalWorlds.get(0)));
-		}
-
-		// if no matching normal world found and more than one normal world exists, return passed world spawn location
-		return Optional.of(plugin.worldManager.getSpawnLocation(player.getWorld()));
+		// look up spawn location of overworld associated with player world
+		return plugin.worldIndex.getOverworldSpawnLocation(player.getWorld());
 	}
 
 
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.teleport;
+
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.metrics.Phase;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+
+/**
+ * Loads teleport destination chunks ahead of time, while players are warming up.<br>
+ * On servers that provide an asynchronous chunk API, the destination chunk is requested from it as soon
+ * as the warmup starts, with urgent priority for warmups that are about to fire. On other servers,
+ * requests are queued by fire tick and loaded synchronously at a rate of a few chunks per tick, soonest
+ * first, so bursts of item use do not stall a single tick. Once loaded, a destination chunk is held by
+ * a plugin chunk ticket until every teleport to it has completed or been cancelled. The time from request
+ * until a chunk that was not already loaded is held is recorded in teleport metrics. Each request reports
+ * when its chunk is loaded, so the destination can be checked once it is available.
+ * <p>
+ * On a region threaded server, no ticket is held, but the chunk is still requested from the asynchronous
+ * chunk API, so the request can report when it has loaded.
+ * <p>
+ * All methods must be called on the main server thread.
+ */
+final class ChunkPreloader {
+
+	// maximum number of chunks loaded synchronously per tick when no async chunk API is available
+	private static final int SYNC_LOADS_PER_TICK = 2;
+
+	// warmups that fire within this many ticks are requested with urgent priority
+	private static final long URGENT_TICKS = 20L;
+
+	// reference to plugin main class
+	private final PluginMain plugin;
+
+	// shared warmup scheduler
+	private final WarmupScheduler warmupScheduler;
+
+	// handles for asynchronous chunk load methods, or null if not available
+	private final MethodHandle getChunkAtAsync;
+	private final MethodHandle getChunkAtAsyncUrgently;
+
+	// pending synchronous loads, soonest fire tick first
+	private final PriorityQueue<Request> pendingLoads =
+			new PriorityQueue<>(Comparator.comparingLong(request -> request.fireTick));
+
+	// number of active requests holding a ticket on each chunk
+	private final Map<ChunkKey, Integer> ticketCounts = new HashMap<>();
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 * @param warmupScheduler the shared warmup scheduler
+	 */
+	ChunkPreloader(final PluginMain plugin, final WarmupScheduler warmupScheduler) {
+		this.plugin = Objects.requireNonNull(plugin);
+		this.warmupScheduler = Objects.requireNonNull(warmupScheduler);
+
+		this.getChunkAtAsync = findWorldMethod("getChunkAtAsync",
+				MethodType.methodType(CompletableFuture.class, int.class, int.class, boolean.class));
+		this.getChunkAtAsyncUrgently = findWorldMethod("getChunkAtAsyncUrgently",
+				MethodType.methodType(CompletableFuture.class, int.class, int.class));
+
+		// without an async chunk API, drain the pending load queue each tick
+		if (getChunkAtAsync == null) {
+			warmupScheduler.scheduleRepeating(this::loadPendingChunks, 1L, 1L);
+		}
+	}
+
+
+	/**
+	 * Request preloading of the chunk containing a teleport destination
+	 *
+	 * @param destination the teleport destination
+	 * @param fireTick the warmup scheduler tick on which the teleport will fire
+	 * @return a handle that must be released when the teleport completes or is cancelled
+	 */
+	Request request(final Location destination, final long fireTick) {
+
+		World world = destination.getWorld();
+
+		Request request = new Request(world == null
+				? null
+				: new ChunkKey(world, destination.getBlockX() >> 4, destination.getBlockZ() >> 4), fireTick);
+
+		if (request.chunkKey == null) {
+			request.released = true;
+			return request;
+		}
+
+		// on a region threaded server, chunk tickets may only be changed by the thread owning the region,
+		// so the chunk is only loaded, to report when it is available, and no ticket is held
+		if (plugin.taskScheduler.isRegionThreaded()) {
+			request.released = true;
+			requestLoadOnly(request);
+			return request;
+		}
+
+		// if chunk is already loaded, only a ticket is needed
+		if (world.isChunkLoaded(request.chunkKey.x, request.chunkKey.z)) {
+			addTicket(request);
+		}
+		else if (getChunkAtAsync != null) {
+			request.requestTime = System.nanoTime();
+			requestAsync(request);
+		}
+		else {
+			request.requestTime = System.nanoTime();
+			pendingLoads.add(request);
+		}
+
+		return request;
+	}
+
+
+	/**
+	 * Request a chunk from the asynchronous chunk API, adding a ticket when it has loaded
+	 *
+	 * @param request the preload request
+	 */
+	private void requestAsync(final Request request) {
+
+		ChunkKey key = request.chunkKey;
+		boolean urgent = request.fireTick - warmupScheduler.getCurrentTick() <= URGENT_TICKS;
+
+		try {
+			CompletableFuture<?> future = (urgent && getChunkAtAsyncUrgently != null)
+					? (CompletableFuture<?>) getChunkAtAsyncUrgently.invoke(key.world, key.x, key.z)
+					: (CompletableFuture<?>) getChunkAtAsync.invoke(key.world, key.x, key.z, true);
+
+			// async chunk futures complete on the main thread
+			future.thenRun(() -> addTicket(request));
+		}
+		catch (Throwable throwable) {
+			plugin.getLogger().log(Level.WARNING, "Could not request asynchronous chunk load.", throwable);
+		}
+	}
+
+
+	/**
+	 * Request a chunk from the asynchronous chunk API without holding a ticket, completing the request's
+	 * loaded future when the chunk has loaded. If no asynchronous chunk API is available, the loaded
+	 * future is completed immediately, and the chunk is loaded by whoever reads it.
+	 *
+	 * @param request the preload request
+	 */
+	private void requestLoadOnly(final Request request) {
+
+		if (getChunkAtAsync == null) {
+			request.loaded.complete(null);
+			return;
+		}
+
+		ChunkKey key = request.chunkKey;
+
+		try {
+			((CompletableFuture<?>) getChunkAtAsync.invoke(key.world, key.x, key.z, true))
+					.whenComplete((chunk, throwable) -> request.loaded.complete(null));
+		}
+		catch (Throwable throwable) {
+			plugin.getLogger().log(Level.WARNING, "Could not request asynchronous chunk load.", throwable);
+			request.loaded.complete(null);
+		}
+	}
+
+
+	/**
+	 * Load a limited number of queued chunks, soonest fire tick first. Runs each tick on the warmup scheduler.
+	 */
+	private void loadPendingChunks() {
+
+		int loads = 0;
+
+		while (loads < SYNC_LOADS_PER_TICK && !pendingLoads.isEmpty()) {
+
+			Request request = pendingLoads.poll();
+
+			// skip requests that were released, or whose teleport is already firing and will load the chunk itself
+			if (request.released || request.fireTick <= warmupScheduler.getCurrentTick()) {
+				continue;
+			}
+
+			ChunkKey key = request.chunkKey;
+			if (!key.world.isChunkLoaded(key.x, key.z)) {
+				key.world.loadChunk(key.x, key.z, true);
+				loads++;
+			}
+
+			addTicket(request);
+		}
+	}
+
+
+	/**
+	 * Add a plugin chunk ticket for a request, if it has not been released
+	 *
+	 * @param request the preload request
+	 */
+	private void addTicket(final Request request) {
+
+		if (request.released || request.ticketed) {
+			return;
+		}
+
+		request.ticketed = true;
+
+		if (request.requestTime != 0L) {
+			plugin.metricsRegistry.recordTime(Phase.CHUNK_PRELOAD, System.nanoTime() - request.requestTime);
+		}
+
+		if (ticketCounts.merge(request.chunkKey, 1, Integer::sum) == 1) {
+			request.chunkKey.world.addPluginChunkTicket(request.chunkKey.x, request.chunkKey.z, plugin);
+		}
+
+		request.loaded.complete(null);
+	}
+
+
+	/**
+	 * Release a request, removing the plugin chunk ticket if no other request holds it
+	 *
+	 * @param request the preload request
+	 */
+	private void release(final Request request) {
+
+		if (request.released) {
+			return;
+		}
+
+		request.released = true;
+
+		if (request.ticketed) {
+			ChunkKey key = request.chunkKey;
+			if (ticketCounts.merge(key, -1, Integer::sum) <= 0) {
+				ticketCounts.remove(key);
+				key.world.removePluginChunkTicket(key.x, key.z, plugin);
+			}
+		}
+	}
+
+
+	/**
+	 * Find a public method of the World interface that is not part of the Bukkit API
+	 *
+	 * @param name the method name
+	 * @param methodType the method type
+	 * @return a method handle, or null if the method is not available on this server
+	 */
+	private static MethodHandle findWorldMethod(final String name, final MethodType methodType) {
+		try {
+			return MethodHandles.publicLookup().findVirtual(World.class, name, methodType);
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+
+	/**
+	 * Chunk coordinates within a world
+	 */
+	private record ChunkKey(World world, int x, int z) { }
+
+
+	/**
+	 * Handle for a destination chunk preload request
+	 */
+	final class Request {
+
+		private final ChunkKey chunkKey;
+		private final long fireTick;
+		private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+		private long requestTime;
+		private boolean ticketed;
+		private boolean released;
+
+
+		private Request(final ChunkKey chunkKey, final long fireTick) {
+			this.chunkKey = chunkKey;
+			this.fireTick = fireTick;
+		}
+
+
+		/**
+		 * Get a future that completes when the requested chunk has loaded. On a server that is not
+		 * region threaded, the future completes on the main server thread, and does not complete if
+		 * the request is released first.
+		 *
+		 * @return a future that completes when the chunk has loaded
+		 */
+		CompletableFuture<Void> whenLoaded() {
+			return loaded;
+		}
+
+
+		/**
+		 * Release this request when its teleport has completed or been cancelled
+		 */
+		void release() {
+			ChunkPreloader.this.release(this);
+		}
+	}
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.teleport;
+
+import com.winterhavenmc.homestar.util.UuidLongMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Append-only binary journal of player cooldown expire times, so cooldowns survive server restarts.<br>
+ * Each record is a fixed size entry of player uuid and cooldown expire time in milliseconds, and
+ * the latest record for a player replaces any earlier record when the journal is loaded. All file
+ * writes are performed in order on a single background thread, so recording a cooldown never blocks
+ * the calling thread. When the journal holds many more records than there are cooldowns in effect,
+ * it is compacted by rewriting it with only the current entries.
+ */
+final class CooldownJournal {
+
+	// file header magic number and format version
+	private static final int MAGIC = 0x48534344;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+	// record size: uuid most and least significant bits, expire time
+	private static final int RECORD_SIZE = Long.BYTES * 3;
+
+	// minimum number of records before the journal is considered for compaction
+	private static final int COMPACT_MIN_RECORDS = 4096;
+
+	private final Path journalPath;
+	private final Logger logger;
+
+	// single background thread that performs all file writes in submission order
+	private final ExecutorService writer;
+
+	// append channel, only accessed from writer thread
+	private FileChannel channel;
+
+	// number of records in the journal file, as of the last submitted write
+	private int recordCount;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param journalPath the path of the journal file
+	 * @param logger the logger used to report file errors
+	 */
+	CooldownJournal(final Path journalPath, final Logger logger) {
+		this.journalPath = journalPath;
+		this.logger = logger;
+		this.writer = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "HomeStar cooldown journal");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+
+	/**
+	 * Read all records from the journal into a map, discarding cooldowns that have already expired.
+	 * A truncated record at the end of the file, left by an interrupted write, is cut from the file,
+	 * so later records are appended on a record boundary. A file that is not in a recognized format
+	 * is moved aside, and a new journal is started in its place.
+	 *
+	 * @param cooldownMap the map to load cooldown expire times into
+	 * @param now the current time in milliseconds
+	 */
+	void load(final UuidLongMap cooldownMap, final long now) {
+
+		if (!Files.isRegularFile(journalPath)) {
+			return;
+		}
+
+		try (FileChannel readChannel = FileChannel.open(journalPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(readChannel.size(), Integer.MAX_VALUE));
+			while (buffer.hasRemaining() && readChannel.read(buffer) >= 0) {
+				// keep reading until buffer is full or end of file
+			}
+			buffer.flip();
+
+			if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				readChannel.close();
+				replaceUnrecognizedJournal();
+				return;
+			}
+
+			// read all complete records in one bulk copy
+			int records = buffer.remaining() / RECORD_SIZE;
+
+			// cut any truncated record from the end of the file
+			if (buffer.remaining() % RECORD_SIZE != 0) {
+				logger.warning("Cooldown journal " + journalPath.getFileName() + " ends with an incomplete record, which was removed.");
+				readChannel.truncate(HEADER_SIZE + (long) records * RECORD_SIZE);
+			}
+
+			long[] values = new long[records * 3];
+			buffer.asLongBuffer().get(values);
+
+			// size map for the records up front, so it is not resized repeatedly while loading
+			cooldownMap.ensureCapacity(cooldownMap.size() + records);
+
+			for (int i = 0; i < values.length; i += 3) {
+				cooldownMap.put(values[i], values[i + 1], values[i + 2]);
+			}
+			recordCount += records;
+		}
+		catch (IOException e) {
+			logger.log(Level.WARNING, "Could not read cooldown journal " + journalPath.getFileName() + ".", e);
+			return;
+		}
+
+		// discard cooldowns that expired while the server was down
+		cooldownMap.sweep(now, Integer.MAX_VALUE);
+	}
+
+
+	/**
+	 * Move a journal file that is not in a recognized format aside, so a new journal is started
+	 * on the next write and the unrecognized file is kept for inspection
+	 *
+	 * @throws IOException if the file could not be moved
+	 */
+	private void replaceUnrecognizedJournal() throws IOException {
+		Path badPath = journalPath.resolveSibling(journalPath.getFileName() + ".bad");
+		Files.move(journalPath, badPath, StandardCopyOption.REPLACE_EXISTING);
+		logger.warning("Cooldown journal " + journalPath.getFileName() + " is not in a recognized format. It was moved to "
+				+ badPath.getFileName() + " and a new journal will be started.");
+	}
+
+
+	/**
+	 * Submit a record of a player cooldown expire time to be appended to the journal
+	 *
+	 * @param playerUid the player uuid
+	 * @param expireTime the cooldown expire time in milliseconds
+	 */
+	void append(final UUID playerUid, final long expireTime) {
+
+		ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE)
+				.putLong(playerUid.getMostSignificantBits())
+				.putLong(playerUid.getLeastSignificantBits())
+				.putLong(expireTime);
+		record.flip();
+
+		recordCount++;
+		submit(() -> writeToJournal(record));
+	}
+
+
+	/**
+	 * Check if the journal should be compacted
+	 *
+	 * @param liveCount the number of cooldowns currently in effect
+	 * @return {@code true} if the journal holds enough superseded records to be worth compacting
+	 */
+	boolean needsCompaction(final int liveCount) {
+		return recordCount > COMPACT_MIN_RECORDS && recordCount > liveCount * 2;
+	}
+
+
+	/**
+	 * Submit a rewrite of the journal containing only the given cooldown entries.
+	 * Records submitted before this call are superseded by the snapshot, and records
+	 * submitted after this call are appended to the rewritten journal.
+	 *
+	 * @param snapshot player uuid most and least significant bits and expire time for each entry, in sequence
+	 */
+	void compact(final long[] snapshot) {
+		recordCount = snapshot.length / 3;
+		submit(() -> rewriteJournal(snapshot));
+	}
+
+
+	/**
+	 * Finish all pending writes and close the journal. The channel is closed by the writer thread, after
+	 * the pending writes, so it is never closed while a record is being appended. If the writes do not
+	 * finish in time, the channel is left to the writer thread, and any partly written record is
+	 * discarded when the journal is next loaded.
+	 */
+	void close() {
+
+		// close channel on writer thread, after all pending writes
+		submit(this::closeChannel);
+		writer.shutdown();
+
+		try {
+			if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+				logger.warning("Timed out waiting for cooldown journal writes to complete. "
+						+ "Pending writes will finish in the background.");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	/**
+	 * Submit a task to the writer thread, ignoring tasks submitted after the journal is closed
+	 *
+	 * @param task the write task
+	 */
+	private void submit(final Runnable task) {
+		try {
+			writer.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+			// journal has been closed
+		}
+	}
+
+
+	/**
+	 * Append a record to the journal, creating the journal file if necessary. Runs on the writer thread.
+	 *
+	 * @param record the record to write
+	 */
+	private void writeToJournal(final ByteBuffer record) {
+		try {
+			if (channel == null) {
+				openChannel();
+			}
+			while (record.hasRemaining()) {
+				channel.write(record);
+			}
+		}
+		catch (IOException e) {
+			logger.log(Level.WARNING, "Could not write to cooldown journal " + journalPath.getFileName() + ".", e);
+			closeChannel();
+		}
+	}
+
+
+	/**
+	 * Write entries to a temporary file and move it into place of the journal. Runs on the writer thread.
+	 *
+	 * @param snapshot player uuid most and least significant bits and expire time for each entry, in sequence
+	 */
+	private void rewriteJournal(final long[] snapshot) {
+
+		closeChannel();
+
+		Path tempPath = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + snapshot.length * Long.BYTES);
+		buffer.putInt(MAGIC).putInt(VERSION);
+		for (long value : snapshot) {
+			buffer.putLong(value);
+		}
+		buffer.flip();
+
+		try {
+			try (FileChannel tempChannel = FileChannel.open(tempPath,
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				while (buffer.hasRemaining()) {
+					tempChannel.write(buffer);
+				}
+			}
+			Files.move(tempPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			logger.log(Level.WARNING, "Could not compact cooldown journal " + journalPath.getFileName() + ".", e);
+		}
+	}
+
+
+	/**
+	 * Open the journal for appending, writing a header if the file is new or empty. Runs on the writer thread.
+	 *
+	 * @throws IOException if the journal could not be opened
+	 */
+	private void openChannel() throws IOException {
+
+		Files.createDirectories(journalPath.getParent());
+
+		channel = FileChannel.open(journalPath,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+		if (channel.size() == 0) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+			header.flip();
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+		}
+	}
+
+
+	/**
+	 * Close the append channel if open
+	 */
+	private void closeChannel() {
+		if (channel != null) {
+			try {
+				channel.close();
+			}
+			catch (IOException e) {
+				logger.log(Level.WARNING, "Could not close cooldown journal " + journalPath.getFileName() + ".", e);
+			}
+			channel = null;
+		}
+	}
+
+}
@@ -17,48 +17,92 @@
 
 package com.winterhavenmc.homestar.teleport;
 
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.util.UuidLongMap;
+
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-
-import static com.winterhavenmc.util.TimeUnit.SECONDS;
 
 
 class CooldownMap {
 
-	private final JavaPlugin plugin;
+	// number of table slots examined for expired entries on each cooldown insert
+	private static final int SWEEP_SLOTS_PER_INSERT = 16;
+
+	private final PluginMain plugin;
 
-	// hashmap to store player UUID and cooldown expire time in milliseconds
-	private final ConcurrentHashMap<UUID, Long> cooldownMap;
+	// map to store player UUID and cooldown expire time in milliseconds
+	private final UuidLongMap cooldownMap;
 
+	// journal that persists cooldown expire times across restarts
+	private final CooldownJournal journal;
 
-	CooldownMap(final JavaPlugin plugin) {
+
+	/**
+	 * Class constructor. Cooldowns recorded in the journal that have not yet expired are loaded into the map.
+	 *
+	 * @param plugin reference to plugin main class
+	 * @param journal the journal used to persist cooldowns
+	 */
+	CooldownMap(final PluginMain plugin, final CooldownJournal journal) {
 		this.plugin = plugin;
-		cooldownMap = new ConcurrentHashMap<>();
+		this.journal = journal;
+		this.cooldownMap = new UuidLongMap();
+
+		long startTime = System.nanoTime();
+		journal.load(cooldownMap, System.currentTimeMillis());
+		if (cooldownMap.size() > 0) {
+			plugin.getLogger().info("Loaded " + cooldownMap.size() + " player cooldowns in "
+					+ (System.nanoTime() - startTime) / 1_000_000 + " ms.");
+		}
+		compactJournalIfNeeded();
 	}
 
 
 	/**
-	 * Insert player uuid into cooldown hashmap with {@code expiretime} as value.<br>
-	 * Schedule task to remove player uuid from cooldown hashmap when time expires.
+	 * Insert player uuid into cooldown map with {@code expiretime} as value.<br>
+	 * Expired entries are removed lazily when read, and by a small incremental
+	 * sweep of the map on each insert, so no task is scheduled per cooldown.
 	 *
 	 * @param player the player being inserted into the cooldown map
+	 * @return the time the cooldown expires, in milliseconds
 	 */
-	void startPlayerCooldown(final Player player) {
+	synchronized long startPlayerCooldown(final Player player) {
+
+		long now = System.currentTimeMillis();
 
-		int cooldownSeconds = plugin.getConfig().getInt("teleport-cooldown");
+		// remove a few expired entries, so the map does not grow with players who are no longer cooling down
+		cooldownMap.sweep(now, SWEEP_SLOTS_PER_INSERT);
 
-		Long expireTime = System.currentTimeMillis() + (SECONDS.toMillis(cooldownSeconds));
+		long expireTime = now + plugin.settings.getTeleportCooldownMillis();
 		cooldownMap.put(player.getUniqueId(), expireTime);
 
-		new BukkitRunnable() {
-			public void run() {
-				cooldownMap.remove(player.getUniqueId());
-			}
-		}.runTaskLater(plugin, SECONDS.toTicks(cooldownSeconds));
+		// record cooldown in journal, rewriting it when it holds mostly superseded records
+		journal.append(player.getUniqueId(), expireTime);
+		compactJournalIfNeeded();
+
+		return expireTime;
+	}
+
+
+	/**
+	 * Get the time a player cooldown expires
+	 *
+	 * @param playerUid the uuid of the player
+	 * @return the time the cooldown expires in milliseconds, or zero if the player is not cooling down
+	 */
+	synchronized long getCooldownExpireTime(final UUID playerUid) {
+
+		long expireTime = cooldownMap.get(playerUid, 0L);
+
+		// if cooldown has expired, remove entry now
+		if (expireTime != 0L && expireTime <= System.currentTimeMillis()) {
+			cooldownMap.remove(playerUid);
+			return 0L;
+		}
+
+		return expireTime;
 	}
 
 
@@ -68,11 +112,23 @@ class CooldownMap {
 	 * @param player the player whose cooldown time remaining is being retrieved
 	 * @return long remaining time in milliseconds
 	 */
-	long getCooldownTimeRemaining(final Player player) {
-		long remainingTime = 0;
-		if (cooldownMap.containsKey(player.getUniqueId())) {
-			remainingTime = (cooldownMap.get(player.getUniqueId()) - System.currentTimeMillis());
+	synchronized long getCooldownTimeRemaining(final Player player) {
+
+		long expireTime = cooldownMap.get(player.getUniqueId(), 0L);
+
+		// if no entry, player is not cooling down
+		if (expireTime == 0L) {
+			return 0L;
 		}
+
+		long remainingTime = expireTime - System.currentTimeMillis();
+
+		// if cooldown has expired, remove entry now
+		if (remainingTime <= 0) {
+			cooldownMap.remove(player.getUniqueId());
+			return 0L;
+		}
+
 		return remainingTime;
 	}
 
@@ -87,4 +143,47 @@ class CooldownMap {
 		return getCooldownTimeRemaining(player) > 0;
 	}
 
+
+	/**
+	 * Get the number of entries in the cooldown map, including expired entries not yet removed
+	 *
+	 * @return the number of entries in the cooldown map
+	 */
+	synchronized int size() {
+		return cooldownMap.size();
+	}
+
+
+	/**
+	 * Finish pending journal writes and close the journal
+	 */
+	void close() {
+		journal.close();
+	}
+
+
+	/**
+	 * Submit a rewrite of the journal with the current map entries, if the journal has grown
+	 * large compared to the number of cooldowns in effect
+	 */
+	private synchronized void compactJournalIfNeeded() {
+
+		if (!journal.needsCompaction(cooldownMap.size())) {
+			return;
+		}
+
+		// remove all expired entries, so they are not written to the compacted journal
+		cooldownMap.sweep(System.currentTimeMillis(), Integer.MAX_VALUE);
+
+		long[] snapshot = new long[cooldownMap.size() * 3];
+		int[] index = { 0 };
+		cooldownMap.forEach((most, least, expireTime) -> {
+			snapshot[index[0]++] = most;
+			snapshot[index[0]++] = least;
+			snapshot[index[0]++] = expireTime;
+		});
+
+		journal.compact(snapshot);
+	}
+
 }
@@ -22,24 +22,33 @@ import com.winterhavenmc.homestar.sounds.SoundId;
 import com.winterhavenmc.homestar.messages.MessageId;
 
 import com.winterhavenmc.homestar.messages.Macro;
+import com.winterhavenmc.homestar.metrics.Phase;
+import com.winterhavenmc.homestar.settings.MovementCheck;
+import com.winterhavenmc.homestar.settings.RemoveFromInventory;
+import com.winterhavenmc.homestar.settings.Settings;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 
 /**
- * Class that extends BukkitRunnable to teleport a player to their home location
- * after a configured warmup period.
+ * Class that implements Runnable to teleport a player to their home location
+ * after a configured warmup period. The task is run by the shared warmup scheduler,
+ * and the teleport is executed when admitted by the teleport admission queue.
  */
-final class DelayedTeleportTask extends BukkitRunnable {
+final class DelayedTeleportTask implements Runnable {
 
 	// reference to main class
 	private final PluginMain plugin;
 
+	// shared warmup scheduler
+	private final WarmupScheduler warmupScheduler;
+
 	// player being teleported
 	private final Player player;
 
@@ -49,22 +58,53 @@ final class DelayedTeleportTask extends BukkitRunnable {
 	// teleport destination display name
 	private final String destinationName;
 
-	// particle task
-	private BukkitTask particleTask;
+	// scheduled handle for this task
+	private WarmupScheduler.ScheduledTask teleportTask;
+
+	// warmup scheduler tick on which this task was started
+	private long startTick;
+
+	// destination chunk preload request
+	private ChunkPreloader.Request chunkPreload;
+
+	// safe landing spot near the destination, found during warmup, and the destination used if none is found in time
+	private CompletableFuture<Location> safeDestination;
+	private Location fallbackDestination;
+
+	// queue that admits the teleport once warmup has ended
+	private TeleportAdmissionQueue admissionQueue;
+
+	// true if this task was cancelled
+	private boolean cancelled;
+
+	// item taken from the player on success, returned to the player if the teleport fails
+	private ItemStack takenItem;
 
 	// HomeStar item used by player
 	private final ItemStack playerItem;
 
+	// player location when warmup started, used to detect movement during warmup
+	private final World originWorld;
+	private final int originBlockX;
+	private final int originBlockY;
+	private final int originBlockZ;
+	private final double originX;
+	private final double originY;
+	private final double originZ;
+
 
 	/**
 	 * Class constructor method
 	 *
+	 * @param plugin reference to plugin main class
+	 * @param warmupScheduler the shared warmup scheduler
 	 * @param player the player to be teleported
 	 * @param destination location where player will be teleported
 	 * @param destinationName the configured name of the teleport destination
 	 * @param playerItem the item used to initiate teleport
 	 */
 	DelayedTeleportTask(final PluginMain plugin,
+						final WarmupScheduler warmupScheduler,
 						final Player player,
 						final Location destination,
 						final String destinationName,
@@ -72,83 +112,307 @@ final class DelayedTeleportTask extends BukkitRunnable {
 
 		// check for null parameters
 		this.plugin = Objects.requireNonNull(plugin);
+		this.warmupScheduler = Objects.requireNonNull(warmupScheduler);
 		this.player = Objects.requireNonNull(player);
 		this.destination = Objects.requireNonNull(destination);
 		this.destinationName = Objects.requireNonNull(destinationName);
 		this.playerItem = Objects.requireNonNull(playerItem);
 
-		// start repeating task for generating particles at player location
-		if (plugin.getConfig().getBoolean("particle-effects")) {
+		// record warmup origin
+		Location origin = player.getLocation();
+		this.originWorld = origin.getWorld();
+		this.originBlockX = origin.getBlockX();
+		this.originBlockY = origin.getBlockY();
+		this.originBlockZ = origin.getBlockZ();
+		this.originX = origin.getX();
+		this.originY = origin.getY();
+		this.originZ = origin.getZ();
+	}
+
+
+	/**
+	 * Schedule this task on the warmup scheduler, request preloading of the destination chunk,
+	 * and begin the search for a safe landing spot near the destination
+	 *
+	 * @param warmupTicks the number of ticks to wait before teleporting the player
+	 * @param chunkPreloader the destination chunk preloader
+	 * @param admissionQueue the queue that admits the teleport once warmup has ended
+	 * @param destinationValidator the destination safety validator
+	 */
+	void start(final long warmupTicks,
+	           final ChunkPreloader chunkPreloader,
+	           final TeleportAdmissionQueue admissionQueue,
+	           final DestinationValidator destinationValidator) {
+
+		this.admissionQueue = Objects.requireNonNull(admissionQueue);
+
+		// record start tick, so warmup particle effects animate from the beginning
+		startTick = warmupScheduler.getCurrentTick();
+
+		// schedule teleport to run after warmup period
+		teleportTask = warmupScheduler.schedule(this, warmupTicks);
+
+		// request destination chunk be loaded during warmup
+		chunkPreload = chunkPreloader.request(destination, startTick + Math.max(1L, warmupTicks));
+
+		// scan destination chunk for a safe landing spot once it has loaded; if the scan has not finished
+		// when the warmup ends, the teleport uses the centered destination
+		fallbackDestination = destinationValidator.center(destination);
+		safeDestination = destinationValidator.validate(destination, chunkPreload.whenLoaded());
+	}
+
+
+	/**
+	 * Cancel this task
+	 */
+	void cancel() {
+
+		cancelled = true;
+
+		if (teleportTask != null) {
+			teleportTask.cancel();
+		}
+
+		releaseChunkPreload();
+	}
+
+
+	/**
+	 * Check if this task was cancelled
+	 *
+	 * @return {@code true} if this task was cancelled, {@code false} if not
+	 */
+	boolean isCancelled() {
+		return cancelled;
+	}
+
+
+	/**
+	 * Get the player being teleported
+	 *
+	 * @return the player being teleported
+	 */
+	Player getPlayer() {
+		return player;
+	}
+
+
+	/**
+	 * Get the warmup scheduler tick on which this task was started
+	 *
+	 * @return the start tick
+	 */
+	long getStartTick() {
+		return startTick;
+	}
+
+
+	/**
+	 * Check if a location is away from the warmup origin, according to the configured movement check.
+	 * In block mode only integer block coordinates are compared, so head rotation and movement within
+	 * the origin block are ignored. In distance mode the squared distance from the origin is compared
+	 * to the squared movement tolerance, so no square root is taken.
+	 *
+	 * @param location the location to check, usually the destination of a player move event
+	 * @return {@code true} if the location is away from the warmup origin, {@code false} if not
+	 */
+	boolean isMovedFromOrigin(final Location location) {
+
+		// a change of world always counts as movement
+		if (location.getWorld() != originWorld) {
+			return true;
+		}
+
+		final Settings settings = plugin.settings;
 
-			// start particle task with 2 tick delay, so it doesn't self cancel on first run
-			particleTask = new ParticleTask(plugin, player).runTaskTimer(plugin, 2L, 10);
+		if (settings.getMovementCheck() == MovementCheck.BLOCK) {
+			return location.getBlockX() != originBlockX
+					|| location.getBlockY() != originBlockY
+					|| location.getBlockZ() != originBlockZ;
+		}
+
+		double dx = location.getX() - originX;
+		double dy = location.getY() - originY;
+		double dz = location.getZ() - originZ;
+
+		return dx * dx + dy * dy + dz * dz > settings.getMovementToleranceSquared();
+	}
+
+
+	/**
+	 * Release destination chunk preload request if one was made
+	 */
+	private void releaseChunkPreload() {
+		if (chunkPreload != null) {
+			chunkPreload.release();
 		}
 	}
 
 
 	@Override
 	public void run() {
+		admissionQueue.submit(this);
+	}
 
-		// cancel particles task
-		particleTask.cancel();
 
-		// if player is in warmup map
-		if (plugin.teleportHandler.isWarmingUp(player)) {
+	/**
+	 * Teleport player once admitted by the admission queue. The teleport starts on the thread that owns
+	 * the player, which is the current thread on a classic server, and the destination chunk preload is
+	 * released when the teleport completes.
+	 */
+	void teleport() {
+		plugin.taskScheduler.runForEntity(player, () -> {
+			boolean started = false;
+			try {
+				started = teleportPlayer();
+			}
+			finally {
+				// if no teleport was started, destination chunk no longer needs to be held
+				if (!started) {
+					releaseChunkPreload();
+				}
+			}
+		});
+	}
+
 
-			// remove player from warmup map
-			plugin.teleportHandler.removeWarmingUpPlayer(player);
+	/**
+	 * Start teleport of player to destination if they are still warming up. If starting the teleport throws,
+	 * any item taken is returned and the teleport is ended, so the player is not left teleporting.
+	 *
+	 * @return {@code true} if a teleport was started, {@code false} if not
+	 */
+	private boolean teleportPlayer() {
 
-			// get remove-from-inventory config setting
-			String removeFromInventory = plugin.getConfig().getString("remove-from-inventory");
+		// end warmup and begin teleport; if player is no longer warming up with this task, teleport was cancelled
+		if (!plugin.teleportHandler.beginTeleport(player, this)) {
+			return false;
+		}
 
-			// check for null
-			if (removeFromInventory == null) {
-				removeFromInventory = "on-success";
-			}
+		try {
+			return startTeleport();
+		}
+		catch (RuntimeException e) {
+			plugin.getLogger().log(Level.WARNING, "Teleport of player " + player.getName() + " failed.", e);
+			returnTakenItem();
+			plugin.teleportHandler.endTeleport(player);
+			return false;
+		}
+	}
 
-			// if remove-from-inventory is configured on-success, take one spawn star item from inventory now
-			if (removeFromInventory.equalsIgnoreCase("on-success")) {
-
-				// try to remove one HomeStar item from player inventory
-				boolean notRemoved = true;
-				for (ItemStack itemStack : player.getInventory()) {
-					if (playerItem.isSimilar(itemStack)) {
-						ItemStack removeItem = itemStack.clone();
-						removeItem.setAmount(1);
-						player.getInventory().removeItem(removeItem);
-						notRemoved = false;
-						break;
-					}
-				}
 
-				// if one HomeStar item could not be removed from inventory, send message, set cooldown and return
-				if (notRemoved) {
-					plugin.messageBuilder.compose(player, MessageId.TELEPORT_CANCELLED_NO_ITEM).send();
-					plugin.soundConfig.playSound(player, SoundId.TELEPORT_CANCELLED_NO_ITEM);
-					plugin.teleportHandler.startPlayerCooldown(player);
-					return;
+	/**
+	 * Take any item due on success, and start teleport of player to destination
+	 *
+	 * @return {@code true} if a teleport was started, {@code false} if not
+	 */
+	private boolean startTeleport() {
+
+		// if remove-from-inventory is configured on-success, take one spawn star item from inventory now
+		if (plugin.settings.getRemoveFromInventory() == RemoveFromInventory.ON_SUCCESS) {
+
+			// try to remove one HomeStar item from player inventory
+			for (ItemStack itemStack : player.getInventory()) {
+				if (playerItem.isSimilar(itemStack)) {
+					takenItem = itemStack.clone();
+					takenItem.setAmount(1);
+					player.getInventory().removeItem(takenItem);
+					break;
 				}
 			}
 
-			// play pre-teleport sound if sound effects are enabled
-			plugin.soundConfig.playSound(player, SoundId.TELEPORT_SUCCESS_DEPARTURE);
+			// if one HomeStar item could not be removed from inventory, send message, set cooldown and return
+			if (takenItem == null) {
+				plugin.teleportHandler.startPlayerCooldown(player);
+				plugin.messageBuilder.compose(player, MessageId.TELEPORT_CANCELLED_NO_ITEM).send();
+				plugin.soundConfig.playSound(player, SoundId.TELEPORT_CANCELLED_NO_ITEM);
+				plugin.metricsRegistry.recordCancelled(CancelReason.NO_ITEM);
+				return false;
+			}
+		}
+
+		// play pre-teleport sound if sound effects are enabled
+		plugin.soundConfig.playSound(player, SoundId.TELEPORT_SUCCESS_DEPARTURE);
+
+		// use safe landing spot if the destination scan has finished, otherwise the centered destination
+		final Location target = safeDestination.getNow(fallbackDestination);
+
+		// region threaded servers reject synchronous teleports, so teleport asynchronously there regardless of setting
+		final boolean async = plugin.settings.isAsyncTeleport() || plugin.taskScheduler.isRegionThreaded();
+
+		// teleport player to destination, timing the teleport for metrics; the synchronous
+		// fallback completes immediately, so completion is handled before this method returns
+		final long startTime = System.nanoTime();
+		TeleportAdapter.teleport(player, target, async)
+				.whenComplete((teleported, throwable) -> plugin.taskScheduler.runForEntity(player, () ->
+						completeTeleport(throwable == null && Boolean.TRUE.equals(teleported), throwable, target, startTime)));
+
+		return true;
+	}
+
+
+	/**
+	 * Finish a teleport. On success, send the success message, play sounds, strike lightning and start the
+	 * player cooldown. On failure, return any item taken on success and tell the player the teleport failed.
+	 *
+	 * @param teleported {@code true} if the player was teleported, {@code false} if not
+	 * @param throwable the exception thrown by the teleport, or null if none was thrown
+	 * @param target the location the player was teleported to
+	 * @param startTime the {@link System#nanoTime()} at which the teleport started
+	 */
+	private void completeTeleport(final boolean teleported,
+	                              final Throwable throwable,
+	                              final Location target,
+	                              final long startTime) {
+
+		// destination chunk no longer needs to be held once teleport is complete
+		releaseChunkPreload();
 
-			// teleport player to destination
-			player.teleport(destination);
+		plugin.metricsRegistry.recordTime(Phase.TELEPORT, System.nanoTime() - startTime);
 
-			// send player respawn message
-			plugin.messageBuilder.compose(player, MessageId.TELEPORT_SUCCESS).setMacro(Macro.DESTINATION, destinationName).send();
+		if (!teleported) {
 
-			// play post-teleport sound if sound effects are enabled
-			plugin.soundConfig.playSound(player, SoundId.TELEPORT_SUCCESS_ARRIVAL);
+			// end teleport first, so the player is not left teleporting if feedback below throws
+			plugin.teleportHandler.endTeleport(player);
 
-			// if lightning is enabled in config, strike lightning at spawn location
-			if (plugin.getConfig().getBoolean("lightning")) {
-				player.getWorld().strikeLightningEffect(destination);
+			if (throwable != null) {
+				plugin.getLogger().log(Level.WARNING, "Teleport of player " + player.getName() + " failed.", throwable);
 			}
 
-			// set player cooldown
-			plugin.teleportHandler.startPlayerCooldown(player);
+			returnTakenItem();
+
+			plugin.messageBuilder.compose(player, MessageId.TELEPORT_FAIL).setMacro(Macro.DESTINATION, destinationName).send();
+			plugin.soundConfig.playSound(player, SoundId.TELEPORT_CANCELLED);
+			plugin.metricsRegistry.recordCancelled(CancelReason.FAILED);
+			return;
+		}
+
+		// set player cooldown first, so the player is not left teleporting if feedback below throws
+		plugin.teleportHandler.startPlayerCooldown(player);
+
+		plugin.metricsRegistry.recordCompleted();
+
+		// send player respawn message
+		plugin.messageBuilder.compose(player, MessageId.TELEPORT_SUCCESS).setMacro(Macro.DESTINATION, destinationName).send();
+
+		// play post-teleport sound if sound effects are enabled
+		plugin.soundConfig.playSound(player, SoundId.TELEPORT_SUCCESS_ARRIVAL);
+
+		// if lightning is enabled in config, strike lightning at spawn location
+		if (plugin.settings.isLightning()) {
+			player.getWorld().strikeLightningEffect(target);
+		}
+	}
+
+
+	/**
+	 * Return any item taken from the player on success, dropping it at the player's feet if their inventory is full
+	 */
+	private void returnTakenItem() {
+		if (takenItem != null) {
+			player.getInventory().addItem(takenItem).values()
+					.forEach(leftover -> player.getWorld().dropItemNaturally(player.getLocation(), leftover));
+			takenItem = null;
 		}
 	}
 
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.teleport;
+
+import com.winterhavenmc.homestar.PluginMain;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+
+/**
+ * Finds a safe landing spot at or near a teleport destination.<br>
+ * Once the destination chunk has been loaded by the chunk preloader, a snapshot of it is captured on the
+ * thread that owns it, and the snapshot is scanned on an asynchronous task for the nearest spot with a solid,
+ * harmless floor and two passable, harmless blocks above it, searching up and down the destination column
+ * first and then the surrounding columns. The scan only reads the snapshot, so it never touches the world
+ * off the owning thread. On a region threaded server, the snapshot is captured by a task on the region
+ * that owns the destination. If the chunk is no longer loaded when the snapshot is taken, or no safe spot
+ * is found, the original destination is used; a teleport that fires before the scan finishes also uses it.
+ * Destinations are centered on their block if center-on-block is enabled.
+ */
+final class DestinationValidator {
+
+	// number of blocks above and below the destination that are searched
+	private static final int VERTICAL_SEARCH = 8;
+
+	// number of blocks around the destination column that are searched, within the destination chunk
+	private static final int HORIZONTAL_SEARCH = 2;
+
+	// materials that hurt a player standing in them
+	private static final Set<Material> HARMFUL_SPACES = EnumSet.of(
+			Material.LAVA,
+			Material.FIRE,
+			Material.SOUL_FIRE,
+			Material.CACTUS,
+			Material.SWEET_BERRY_BUSH,
+			Material.WITHER_ROSE,
+			Material.POWDER_SNOW,
+			Material.POINTED_DRIPSTONE);
+
+	// materials that hurt a player standing on them
+	private static final Set<Material> HARMFUL_FLOORS = EnumSet.of(
+			Material.MAGMA_BLOCK,
+			Material.CACTUS,
+			Material.CAMPFIRE,
+			Material.SOUL_CAMPFIRE,
+			Material.POINTED_DRIPSTONE);
+
+	// reference to plugin main class
+	private final PluginMain plugin;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 */
+	DestinationValidator(final PluginMain plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+	}
+
+
+	/**
+	 * Begin the search for a safe landing spot near a destination, once its chunk has loaded.
+	 * Must be called on the main server thread, or on a region threaded server, on any tick thread.
+	 *
+	 * @param destination the teleport destination
+	 * @param chunkLoaded a future that completes when the destination chunk has loaded; on a server that is
+	 *                    not region threaded, it must complete on the main server thread
+	 * @return a future that completes with the safe destination, or with the centered original destination
+	 * if no safe spot is found; the future never completes exceptionally
+	 */
+	CompletableFuture<Location> validate(final Location destination, final CompletableFuture<?> chunkLoaded) {
+
+		final Location fallback = center(destination);
+
+		if (destination.getWorld() == null) {
+			return CompletableFuture.completedFuture(fallback);
+		}
+
+		final CompletableFuture<Location> future = new CompletableFuture<>();
+
+		// chunk snapshots can only be captured on the thread that owns the chunk, which is the thread the
+		// loaded future completes on, except on a region threaded server
+		chunkLoaded.thenRun(() -> {
+			if (plugin.taskScheduler.isRegionThreaded()) {
+				plugin.taskScheduler.runAtLocation(destination, () -> scan(destination, fallback, future));
+			}
+			else {
+				scan(destination, fallback, future);
+			}
+		});
+
+		return future;
+	}
+
+
+	/**
+	 * Capture a snapshot of the destination chunk, and scan it for a safe spot on an asynchronous task.
+	 * Must be called on the thread that owns the destination chunk.
+	 *
+	 * @param destination the teleport destination
+	 * @param fallback the destination used if no safe spot is found
+	 * @param future the future to complete with the result
+	 */
+	private void scan(final Location destination, final Location fallback, final CompletableFuture<Location> future) {
+
+		try {
+			final World world = destination.getWorld();
+			final int chunkX = destination.getBlockX() >> 4;
+			final int chunkZ = destination.getBlockZ() >> 4;
+
+			// do not load the chunk here; if it was unloaded again, use the original destination
+			if (world == null || !world.isChunkLoaded(chunkX, chunkZ)) {
+				future.complete(fallback);
+				return;
+			}
+
+			final ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+			final int minY = world.getMinHeight();
+			final int maxY = world.getMaxHeight();
+
+			plugin.taskScheduler.runAsync(() -> {
+				try {
+					future.complete(findSafeLocation(snapshot, fallback, minY, maxY));
+				}
+				catch (RuntimeException e) {
+					plugin.getLogger().log(Level.WARNING, "Could not check teleport destination safety.", e);
+					future.complete(fallback);
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			plugin.getLogger().log(Level.WARNING, "Could not check teleport destination safety.", e);
+			future.complete(fallback);
+		}
+	}
+
+
+	/**
+	 * Center a destination on its block, if center-on-block is enabled
+	 *
+	 * @param destination the teleport destination
+	 * @return a centered copy of the destination, or an unchanged copy if center-on-block is disabled
+	 */
+	Location center(final Location destination) {
+
+		Location location = destination.clone();
+
+		if (plugin.settings.isCenterOnBlock()) {
+			location.setX(location.getBlockX() + 0.5);
+			location.setZ(location.getBlockZ() + 0.5);
+		}
+
+		return location;
+	}
+
+
+	/**
+	 * Scan a chunk snapshot for the safe spot nearest a destination
+	 *
+	 * @param snapshot snapshot of the chunk containing the destination
+	 * @param destination the teleport destination
+	 * @param minY the lowest block height of the destination world
+	 * @param maxY the height above the highest block of the destination world
+	 * @return the destination if it is safe, the nearest safe spot if one is found, otherwise the destination
+	 */
+	static Location findSafeLocation(final ChunkSnapshot snapshot, final Location destination, final int minY, final int maxY) {
+
+		final int blockX = destination.getBlockX() & 15;
+		final int blockY = destination.getBlockY();
+		final int blockZ = destination.getBlockZ() & 15;
+
+		// search columns at increasing horizontal distance, and within each column at increasing vertical distance
+		for (int radius = 0; radius <= HORIZONTAL_SEARCH; radius++) {
+			for (int dx = -radius; dx <= radius; dx++) {
+				for (int dz = -radius; dz <= radius; dz++) {
+
+					// only the ring at this radius is new
+					if (Math.max(Math.abs(dx), Math.abs(dz)) != radius) {
+						continue;
+					}
+
+					int x = blockX + dx;
+					int z = blockZ + dz;
+					if (x < 0 || x > 15 || z < 0 || z > 15) {
+						continue;
+					}
+
+					for (int dy = 0; dy <= VERTICAL_SEARCH; dy++) {
+						if (isSafe(snapshot, x, blockY + dy, z, minY, maxY)) {
+							return relocate(destination, dx, dy, dz);
+						}
+						if (dy > 0 && isSafe(snapshot, x, blockY - dy, z, minY, maxY)) {
+							return relocate(destination, dx, -dy, dz);
+						}
+					}
+				}
+			}
+		}
+
+		return destination;
+	}
+
+
+	/**
+	 * Check if a player can stand safely with their feet in a block
+	 *
+	 * @param snapshot the chunk snapshot
+	 * @param x chunk relative block x coordinate
+	 * @param y block y coordinate of the player's feet
+	 * @param z chunk relative block z coordinate
+	 * @param minY the lowest block height of the world
+	 * @param maxY the height above the highest block of the world
+	 * @return {@code true} if the floor is solid and harmless and the feet and head blocks are passable and harmless
+	 */
+	private static boolean isSafe(final ChunkSnapshot snapshot, final int x, final int y, final int z,
+	                              final int minY, final int maxY) {
+
+		// floor must be within the world, and head must be below the build limit
+		if (y - 1 < minY || y + 1 >= maxY) {
+			return false;
+		}
+
+		Material floor = snapshot.getBlockType(x, y - 1, z);
+		Material feet = snapshot.getBlockType(x, y, z);
+		Material head = snapshot.getBlockType(x, y + 1, z);
+
+		return floor.isSolid() && !HARMFUL_FLOORS.contains(floor)
+				&& isPassable(feet)
+				&& isPassable(head);
+	}
+
+
+	/**
+	 * Check if a player can occupy a block without suffocating or being hurt
+	 *
+	 * @param material the block material
+	 * @return {@code true} if the material is not solid and not harmful
+	 */
+	private static boolean isPassable(final Material material) {
+		return !material.isSolid() && !HARMFUL_SPACES.contains(material);
+	}
+
+
+	/**
+	 * Get a copy of a destination moved by a block offset, keeping its position within the block and its direction
+	 *
+	 * @param destination the destination
+	 * @param dx block offset in x
+	 * @param dy block offset in y
+	 * @param dz block offset in z
+	 * @return the moved copy; the original if the offset is zero
+	 */
+	private static Location relocate(final Location destination, final int dx, final int dy, final int dz) {
+
+		if (dx == 0 && dy == 0 && dz == 0) {
+			return destination;
+		}
+
+		Location location = destination.clone().add(dx, dy, dz);
+
+		// a spot found above or below stands on the top of its floor block
+		if (dy != 0) {
+			location.setY(location.getBlockY());
+		}
+
+		return location;
+	}
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.teleport;
+
+import com.winterhavenmc.homestar.PluginMain;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.type.RespawnAnchor;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Per-player cache of resolved bed spawn locations.<br>
+ * {@link Player#getBedSpawnLocation()} validates the bed or respawn anchor by loading its chunk, which is
+ * too expensive to repeat on every item use. Resolved locations, including the absence of a location,
+ * are cached for a configured time, and are discarded early when the player enters a bed, uses a respawn
+ * anchor, respawns or quits, when a bed or respawn anchor near the cached location is destroyed or moved, or when
+ * the cached location's world is unloaded. Before a cached location is used, the bed or respawn anchor found next
+ * to it when it was cached is checked to still be a bed or a charged respawn anchor, if its chunk is loaded, so
+ * changes that fire no event are also caught.
+ * <p>
+ * Entries are kept in a concurrent map, so the cache may be used from any region thread. On a region threaded
+ * server, the block next to a cached location may belong to another region, so it is not checked.
+ */
+final class HomeLocationCache {
+
+	// distance in blocks from a cached location within which a destroyed bed or anchor invalidates it
+	private static final int INVALIDATION_RADIUS = 2;
+
+	// reference to plugin main class
+	private final PluginMain plugin;
+
+	// map of player uuid to cached bed spawn location
+	private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 */
+	HomeLocationCache(final PluginMain plugin) {
+		this.plugin = plugin;
+	}
+
+
+	/**
+	 * Get a player's bed spawn location, from the cache if a current entry is present
+	 *
+	 * @param player the player
+	 * @return {@link Optional} wrapped copy of the player bed spawn location, or an empty Optional if the player has none
+	 */
+	Optional<Location> getHomeLocation(final Player player) {
+
+		long ttlMillis = plugin.settings.getHomeCacheTtlMillis();
+
+		// if caching is disabled, look up location directly
+		if (ttlMillis <= 0) {
+			return Optional.ofNullable(player.getBedSpawnLocation());
+		}
+
+		long now = System.currentTimeMillis();
+		Entry entry = entries.get(player.getUniqueId());
+
+		// if no current entry, or its bed or respawn anchor is gone, look up location and cache result
+		if (entry == null || entry.expireTime() <= now || !isSpawnBlockIntact(entry)) {
+			Location location = player.getBedSpawnLocation();
+			entry = new Entry(location, findSpawnBlock(location), now + ttlMillis);
+			entries.put(player.getUniqueId(), entry);
+		}
+
+		// return a copy, so the cached location cannot be modified by the caller
+		return entry.location() == null ? Optional.empty() : Optional.of(entry.location().clone());
+	}
+
+
+	/**
+	 * Find the bed or respawn anchor nearest to a bed spawn location, among blocks in loaded chunks
+	 *
+	 * @param location the bed spawn location, or null if the player has none
+	 * @return the location of the nearest bed or charged respawn anchor, or null if none was found or blocks
+	 * may not be read from this thread
+	 */
+	private Location findSpawnBlock(final Location location) {
+
+		if (location == null || location.getWorld() == null || plugin.taskScheduler.isRegionThreaded()) {
+			return null;
+		}
+
+		World world = location.getWorld();
+		int x = location.getBlockX();
+		int y = location.getBlockY();
+		int z = location.getBlockZ();
+
+		Location nearest = null;
+		int nearestDistanceSquared = Integer.MAX_VALUE;
+
+		for (int dx = -INVALIDATION_RADIUS; dx <= INVALIDATION_RADIUS; dx++) {
+			for (int dz = -INVALIDATION_RADIUS; dz <= INVALIDATION_RADIUS; dz++) {
+
+				// do not load chunks to search them
+				if (!world.isChunkLoaded((x + dx) >> 4, (z + dz) >> 4)) {
+					continue;
+				}
+
+				for (int dy = -INVALIDATION_RADIUS; dy <= INVALIDATION_RADIUS; dy++) {
+					int distanceSquared = dx * dx + dy * dy + dz * dz;
+					if (distanceSquared < nearestDistanceSquared && isSpawnBlock(world.getBlockAt(x + dx, y + dy, z + dz))) {
+						nearest = new Location(world, x + dx, y + dy, z + dz);
+						nearestDistanceSquared = distanceSquared;
+					}
+				}
+			}
+		}
+
+		return nearest;
+	}
+
+
+	/**
+	 * Check if the bed or respawn anchor of a cache entry is still a bed or charged respawn anchor. An entry without
+	 * a recorded block, or whose block is in an unloaded chunk where it cannot have changed, is assumed intact.
+	 *
+	 * @param entry the cache entry
+	 * @return {@code true} if the entry's spawn block is intact or cannot be checked, {@code false} if not
+	 */
+	private boolean isSpawnBlockIntact(final Entry entry) {
+
+		Location spawnBlock = entry.spawnBlock();
+		if (spawnBlock == null || plugin.taskScheduler.isRegionThreaded()) {
+			return true;
+		}
+
+		World world = spawnBlock.getWorld();
+		int x = spawnBlock.getBlockX();
+		int z = spawnBlock.getBlockZ();
+
+		if (world == null || !world.isChunkLoaded(x >> 4, z >> 4)) {
+			return true;
+		}
+
+		return isSpawnBlock(world.getBlockAt(x, spawnBlock.getBlockY(), z));
+	}
+
+
+	/**
+	 * Check if a block is a bed or a respawn anchor with charges remaining
+	 *
+	 * @param block the block to check
+	 * @return {@code true} if the block can set a player spawn location, {@code false} if not
+	 */
+	private static boolean isSpawnBlock(final Block block) {
+		Material material = block.getType();
+		if (material == Material.RESPAWN_ANCHOR) {
+			return block.getBlockData() instanceof RespawnAnchor anchor && anchor.getCharges() > 0;
+		}
+		return Tag.BEDS.isTagged(material);
+	}
+
+
+	/**
+	 * Discard cached location for a player
+	 *
+	 * @param playerUid the player uuid
+	 */
+	void invalidate(final UUID playerUid) {
+		entries.remove(playerUid);
+	}
+
+
+	/**
+	 * Discard cached locations near a destroyed bed or respawn anchor block
+	 *
+	 * @param block the destroyed block
+	 */
+	void invalidateNear(final Block block) {
+
+		World world = block.getWorld();
+		int x = block.getX();
+		int y = block.getY();
+		int z = block.getZ();
+
+		entries.values().removeIf(entry -> entry.location() != null
+				&& entry.location().getWorld() == world
+				&& Math.abs(entry.location().getBlockX() - x) <= INVALIDATION_RADIUS
+				&& Math.abs(entry.location().getBlockY() - y) <= INVALIDATION_RADIUS
+				&& Math.abs(entry.location().getBlockZ() - z) <= INVALIDATION_RADIUS);
+	}
+
+
+	/**
+	 * Discard cached locations in a world
+	 *
+	 * @param world the world
+	 */
+	void invalidateWorld(final World world) {
+		entries.values().removeIf(entry -> entry.location() != null && entry.location().getWorld() == world);
+	}
+
+
+	/**
+	 * Discard all cached locations
+	 */
+	void clear() {
+		entries.clear();
+	}
+
+
+	/**
+	 * Cached bed spawn location, the bed or respawn anchor it belongs to, and the time it expires, in milliseconds
+	 *
+	 * @param location the bed spawn location, or null if the player has none
+	 * @param spawnBlock the location of the bed or respawn anchor, or null if not known
+	 * @param expireTime the time this entry expires
+	 */
+	private record Entry(Location location, Location spawnBlock, long expireTime) { }
+
+}
@@ -45,7 +45,7 @@ final class HomeTeleporter extends AbstractTeleporter implements Teleporter {
 	@Override
 	public void initiate(final Player player) {
 		getHomeDestination(player).ifPresentOrElse(
-				destination -> execute(player, destination, plugin.messageBuilder.getHomeDisplayName().orElse("Home"), player.getInventory().getItemInMainHand()),
+				destination -> execute(player, destination, plugin.messageCache.getHomeDisplayName(), player.getInventory().getItemInMainHand()),
 				() -> fallbackToSpawn(player)
 		);
 	}
@@ -63,10 +63,10 @@ final class HomeTeleporter extends AbstractTeleporter implements Teleporter {
 	 * @param player the player to teleport
 	 */
 	void fallbackToSpawn(final Player player) {
-		if (plugin.getConfig().getBoolean("bedspawn-fallback")) {
+		if (plugin.settings.isBedspawnFallback()) {
 			getSpawnDestination(player).ifPresentOrElse(
 					destination -> new SpawnTeleporter(plugin, teleportExecutor).initiate(player),
-					() -> sendInvalidDestinationMessage(player, plugin.messageBuilder.getHomeDisplayName().orElse("Home"))
+					() -> sendInvalidDestinationMessage(player, plugin.messageCache.getHomeDisplayName())
 			);
 		}
 		else {
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.teleport;
+
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.settings.ParticleShape;
+import com.winterhavenmc.homestar.settings.Settings;
+
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Draws warmup particle effects for all warming up players from a single repeating task on the warmup scheduler.<br>
+ * Each configured shape is precomputed as a looping sequence of frames of point offsets, so drawing a frame is
+ * only additions. Particles are sent to each player within the configured view distance individually, rather than
+ * broadcast by the world, and the total number of particles sent is capped at the configured per tick limit,
+ * multiplied by the number of ticks between frames. When the cap is reached,
+ * the remaining players are skipped for that frame, and the player drawn first rotates each frame, so a crowd
+ * of warming up players shares the budget evenly.<br>
+ * The ender-signal shape is the original HomeStar warmup effect: one ender signal burst above the player
+ * every ten ticks. Each burst counts as one particle against the limit.
+ * <p>
+ * On a region threaded server, player locations may only be read by the thread that owns the player,
+ * so each player's shape is drawn by a task on that thread instead, broadcast by the world to nearby
+ * players. The particle limit then counts particles drawn, rather than particles sent to each viewer.
+ */
+final class ParticleEngine {
+
+	// number of ticks between frames
+	private static final long FRAME_TICKS = 2L;
+
+	// particle used to draw shapes
+	private static final Particle PARTICLE = Particle.PORTAL;
+
+	// effect used to draw the ender-signal shape
+	private static final Effect EFFECT = Effect.ENDER_SIGNAL;
+
+	// number of frames in one loop of the ender-signal shape; one burst every ten ticks
+	private static final int ENDER_SIGNAL_FRAME_COUNT = 5;
+
+	// height in blocks of the ender-signal burst above player feet
+	private static final double ENDER_SIGNAL_HEIGHT = 1.0;
+
+	// height in blocks of drawn shapes above player feet
+	private static final double SHAPE_HEIGHT = 2.0;
+
+	// radius in blocks of drawn shapes
+	private static final double SHAPE_RADIUS = 0.7;
+
+	// number of frames in one loop of each shape
+	private static final int FRAME_COUNT = 20;
+
+	// number of entries in the sine and cosine lookup tables
+	private static final int ANGLE_STEPS = 64;
+
+	// precomputed frames for each shape; each frame is a sequence of x, y, z offsets from player feet
+	private static final Map<ParticleShape, double[][]> SHAPE_FRAMES = buildShapeFrames();
+
+	// reference to plugin main class
+	private final PluginMain plugin;
+
+	// shared warmup scheduler
+	private final WarmupScheduler warmupScheduler;
+
+	// warming up players
+	private final WarmupMap warmupMap;
+
+	// index of the player drawn first in the next frame
+	private int rotation;
+
+	// reusable location, to avoid allocating one per player per frame
+	private final Location scratchLocation = new Location(null, 0, 0, 0);
+
+	// reusable location for effect positions, to avoid allocating one per effect
+	private final Location effectLocation = new Location(null, 0, 0, 0);
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 * @param warmupScheduler the shared warmup scheduler
+	 * @param warmupMap the map of warming up players
+	 */
+	ParticleEngine(final PluginMain plugin, final WarmupScheduler warmupScheduler, final WarmupMap warmupMap) {
+		this.plugin = Objects.requireNonNull(plugin);
+		this.warmupScheduler = Objects.requireNonNull(warmupScheduler);
+		this.warmupMap = Objects.requireNonNull(warmupMap);
+
+		warmupScheduler.scheduleRepeating(this::drawFrame, FRAME_TICKS, FRAME_TICKS);
+	}
+
+
+	/**
+	 * Draw one frame of the configured shape around each warming up player, within the configured particle limit
+	 */
+	private void drawFrame() {
+
+		final Settings settings = plugin.settings;
+
+		if (!settings.isParticleEffects() || warmupMap.size() == 0) {
+			return;
+		}
+
+		final double[][] frames = SHAPE_FRAMES.get(settings.getParticleShape());
+		final boolean enderSignal = settings.getParticleShape() == ParticleShape.ENDER_SIGNAL;
+		final double viewDistanceSquared = settings.getParticleViewDistanceSquared();
+		final long currentTick = warmupScheduler.getCurrentTick();
+
+		// particle limit is per tick, and a frame is drawn once every FRAME_TICKS ticks
+		int budget = (int) Math.min(Integer.MAX_VALUE, (long) settings.getParticleLimit() * FRAME_TICKS);
+
+		// snapshot warmup tasks, so rotation is over a stable order for this frame
+		final List<DelayedTeleportTask> tasks = new ArrayList<>(warmupMap.getTeleportTasks());
+		final int taskCount = tasks.size();
+		if (taskCount == 0) {
+			return;
+		}
+
+		// player locations by world, collected once per frame and shared by all emitters in the world
+		final Map<World, Viewers> viewersByWorld = new HashMap<>();
+
+		final int first = Math.floorMod(rotation++, taskCount);
+
+		if (plugin.taskScheduler.isRegionThreaded()) {
+			drawFrameByRegion(tasks, frames, enderSignal, first, currentTick, budget);
+			return;
+		}
+
+		for (int i = 0; i < taskCount && budget > 0; i++) {
+
+			DelayedTeleportTask task = tasks.get((first + i) % taskCount);
+
+			// select frame by time since warmup started, so each player's shape animates from its beginning
+			double[] frame = frames[(int) (((currentTick - task.getStartTick()) / FRAME_TICKS) % frames.length)];
+			int pointCount = frame.length / 3;
+
+			// frames without points draw nothing
+			if (pointCount == 0) {
+				continue;
+			}
+
+			Player player = task.getPlayer();
+			Location location = player.getLocation(scratchLocation);
+			World world = location.getWorld();
+			if (world == null) {
+				continue;
+			}
+
+			double x = location.getX();
+			double y = location.getY();
+			double z = location.getZ();
+
+			Viewers viewers = viewersByWorld.computeIfAbsent(world, Viewers::of);
+
+			for (int v = 0; v < viewers.players.length && budget >= pointCount; v++) {
+
+				double dx = viewers.coordinates[v * 3] - x;
+				double dy = viewers.coordinates[v * 3 + 1] - y;
+				double dz = viewers.coordinates[v * 3 + 2] - z;
+
+				if (dx * dx + dy * dy + dz * dz > viewDistanceSquared) {
+					continue;
+				}
+
+				Player viewer = viewers.players[v];
+				for (int p = 0; p < frame.length; p += 3) {
+					if (enderSignal) {
+						effectLocation.setWorld(world);
+						effectLocation.setX(x + frame[p]);
+						effectLocation.setY(y + frame[p + 1]);
+						effectLocation.setZ(z + frame[p + 2]);
+						viewer.playEffect(effectLocation, EFFECT, null);
+					}
+					else {
+						viewer.spawnParticle(PARTICLE, x + frame[p], y + frame[p + 1], z + frame[p + 2], 1, 0, 0, 0, 0);
+					}
+				}
+
+				budget -= pointCount;
+			}
+		}
+	}
+
+
+	/**
+	 * Draw one frame around each warming up player on the thread that owns the player, within the particle limit
+	 *
+	 * @param tasks the warmup tasks of warming up players
+	 * @param frames the frames of the configured shape
+	 * @param enderSignal {@code true} to draw points with the ender signal effect, {@code false} for particles
+	 * @param first the index of the task drawn first
+	 * @param currentTick the current warmup scheduler tick
+	 * @param budget the number of particles that may be drawn
+	 */
+	private void drawFrameByRegion(final List<DelayedTeleportTask> tasks,
+	                               final double[][] frames,
+	                               final boolean enderSignal,
+	                               final int first,
+	                               final long currentTick,
+	                               int budget) {
+
+		final int taskCount = tasks.size();
+
+		for (int i = 0; i < taskCount; i++) {
+
+			DelayedTeleportTask task = tasks.get((first + i) % taskCount);
+			double[] frame = frames[(int) (((currentTick - task.getStartTick()) / FRAME_TICKS) % frames.length)];
+
+			// frames without points draw nothing
+			if (frame.length == 0) {
+				continue;
+			}
+
+			budget -= frame.length / 3;
+			if (budget < 0) {
+				return;
+			}
+
+			Player player = task.getPlayer();
+			plugin.taskScheduler.runForEntity(player, () -> {
+				Location location = player.getLocation();
+				World world = location.getWorld();
+				if (world != null) {
+					for (int p = 0; p < frame.length; p += 3) {
+						if (enderSignal) {
+							world.playEffect(new Location(world, location.getX() + frame[p], location.getY() + frame[p + 1],
+									location.getZ() + frame[p + 2]), EFFECT, 0);
+						}
+						else {
+							world.spawnParticle(PARTICLE, location.getX() + frame[p], location.getY() + frame[p + 1],
+									location.getZ() + frame[p + 2], 1, 0, 0, 0, 0);
+						}
+					}
+				}
+			});
+		}
+	}
+
+
+	/**
+	 * Build the frames for every shape, using sine and cosine lookup tables
+	 *
+	 * @return map of shape to frames
+	 */
+	private static Map<ParticleShape, double[][]> buildShapeFrames() {
+
+		double[] sin = new double[ANGLE_STEPS];
+		double[] cos = new double[ANGLE_STEPS];
+		for (int i = 0; i < ANGLE_STEPS; i++) {
+			double angle = 2 * Math.PI * i / ANGLE_STEPS;
+			sin[i] = Math.sin(angle) * SHAPE_RADIUS;
+			cos[i] = Math.cos(angle) * SHAPE_RADIUS;
+		}
+
+		Map<ParticleShape, double[][]> shapeFrames = new EnumMap<>(ParticleShape.class);
+
+		// ender signal: one burst above the player at the start of each loop, and nothing in the other frames
+		double[][] enderSignal = new double[ENDER_SIGNAL_FRAME_COUNT][];
+		enderSignal[0] = new double[] { 0.0, ENDER_SIGNAL_HEIGHT, 0.0 };
+		for (int f = 1; f < ENDER_SIGNAL_FRAME_COUNT; f++) {
+			enderSignal[f] = new double[0];
+		}
+		shapeFrames.put(ParticleShape.ENDER_SIGNAL, enderSignal);
+
+		// spiral: two opposite points climbing and circling the player, three full turns per loop
+		double[][] spiral = new double[FRAME_COUNT][];
+		for (int f = 0; f < FRAME_COUNT; f++) {
+			int angle = (f * ANGLE_STEPS * 3 / FRAME_COUNT) % ANGLE_STEPS;
+			int opposite = (angle + ANGLE_STEPS / 2) % ANGLE_STEPS;
+			double height = SHAPE_HEIGHT * f / FRAME_COUNT;
+			spiral[f] = new double[] {
+					cos[angle], height, sin[angle],
+					cos[opposite], height, sin[opposite]
+			};
+		}
+		shapeFrames.put(ParticleShape.SPIRAL, spiral);
+
+		// ring: a ring of points rising from the player's feet to above their head
+		final int ringPoints = 8;
+		double[][] ring = new double[FRAME_COUNT][];
+		for (int f = 0; f < FRAME_COUNT; f++) {
+			double height = SHAPE_HEIGHT * f / FRAME_COUNT;
+			ring[f] = new double[ringPoints * 3];
+			for (int p = 0; p < ringPoints; p++) {
+				int angle = (p * ANGLE_STEPS / ringPoints + f) % ANGLE_STEPS;
+				ring[f][p * 3] = cos[angle];
+				ring[f][p * 3 + 1] = height;
+				ring[f][p * 3 + 2] = sin[angle];
+			}
+		}
+		shapeFrames.put(ParticleShape.RING, ring);
+
+		return shapeFrames;
+	}
+
+
+	/**
+	 * Players in a world and their coordinates, packed as x, y, z triples
+	 */
+	private record Viewers(Player[] players, double[] coordinates) {
+
+		static Viewers of(final World world) {
+
+			List<Player> worldPlayers = world.getPlayers();
+			Player[] players = worldPlayers.toArray(new Player[0]);
+			double[] coordinates = new double[players.length * 3];
+
+			Location location = new Location(world, 0, 0, 0);
+			for (int i = 0; i < players.length; i++) {
+				players[i].getLocation(location);
+				coordinates[i * 3] = location.getX();
+				coordinates[i * 3 + 1] = location.getY();
+				coordinates[i * 3 + 2] = location.getZ();
+			}
+
+			return new Viewers(players, coordinates);
+		}
+	}
+
+}
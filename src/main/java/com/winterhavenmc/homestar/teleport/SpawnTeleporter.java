@@ -43,8 +43,8 @@ final class SpawnTeleporter extends AbstractTeleporter implements Teleporter {
 	@Override
 	public void initiate(final Player player) {
 		getSpawnDestination(player).ifPresentOrElse(
-				location -> execute(player, location, plugin.messageBuilder.getSpawnDisplayName().orElse("Spawn"), player.getInventory().getItemInMainHand()),
-				() -> sendInvalidDestinationMessage(player, plugin.messageBuilder.getSpawnDisplayName().orElse("Spawn"))
+				location -> execute(player, location, plugin.messageCache.getSpawnDisplayName(), player.getInventory().getItemInMainHand()),
+				() -> sendInvalidDestinationMessage(player, plugin.messageCache.getSpawnDisplayName())
 		);
 	}
 
@@ -55,12 +55,12 @@ final class SpawnTeleporter extends AbstractTeleporter implements Teleporter {
 		Location finalDestination = location;
 
 		// if from-nether is enabled in config and player is in nether, try to get overworld spawn location
-		if (plugin.getConfig().getBoolean("from-nether") && isInNetherWorld(player)) {
+		if (plugin.settings.isFromNether() && isInNetherWorld(player)) {
 			finalDestination = getOverworldSpawnLocation(player).orElse(finalDestination);
 		}
 
 		// if from-end is enabled in config and player is in end, try to get overworld spawn location
-		else if (plugin.getConfig().getBoolean("from-end") && isInEndWorld(player)) {
+		else if (plugin.settings.isFromEnd() && isInEndWorld(player)) {
 			finalDestination = getOverworldSpawnLocation(player).orElse(finalDestination);
 		}
 
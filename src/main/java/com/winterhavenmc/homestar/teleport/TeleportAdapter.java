@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.teleport;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Teleports players asynchronously on servers that provide an asynchronous teleport method,
+ * so the server can prepare the destination without stalling the tick, and synchronously otherwise.
+ * Both paths report their result through a future, so callers handle completion the same way.
+ */
+final class TeleportAdapter {
+
+	// handle for the asynchronous teleport method, or null if not available
+	private static final MethodHandle TELEPORT_ASYNC = findTeleportAsync();
+
+
+	/**
+	 * Private constructor to prevent instantiation of utility class
+	 */
+	private TeleportAdapter() {
+		throw new AssertionError();
+	}
+
+
+	/**
+	 * Teleport a player
+	 *
+	 * @param player the player to teleport
+	 * @param destination the teleport destination
+	 * @param async {@code true} to teleport asynchronously if the server supports it
+	 * @return a future that completes with {@code true} if the player was teleported, {@code false} if not,
+	 * or completes exceptionally if the teleport threw an exception
+	 */
+	static CompletableFuture<Boolean> teleport(final Player player, final Location destination, final boolean async) {
+		try {
+			if (async && TELEPORT_ASYNC != null) {
+				try {
+					@SuppressWarnings("unchecked")
+					CompletableFuture<Boolean> future = (CompletableFuture<Boolean>) TELEPORT_ASYNC.invoke(player, destination);
+					return future;
+				}
+				catch (UnsupportedOperationException e) {
+					// the method is declared but not implemented by this server; fall back to a synchronous teleport
+				}
+			}
+
+			return CompletableFuture.completedFuture(player.teleport(destination));
+		}
+		catch (Throwable throwable) {
+			return CompletableFuture.failedFuture(throwable);
+		}
+	}
+
+
+	/**
+	 * Check if a teleport runs synchronously, on the calling thread, before {@link #teleport} returns
+	 *
+	 * @param async {@code true} if the teleport is requested to be asynchronous
+	 * @return {@code true} if the teleport runs synchronously, {@code false} if the server runs it asynchronously
+	 */
+	static boolean isSynchronous(final boolean async) {
+		return !async || TELEPORT_ASYNC == null;
+	}
+
+
+	/**
+	 * Look up the asynchronous teleport method
+	 *
+	 * @return the method handle, or null if the server does not provide the method
+	 */
+	private static MethodHandle findTeleportAsync() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(Entity.class, "teleportAsync",
+					MethodType.methodType(CompletableFuture.class, Location.class));
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+}
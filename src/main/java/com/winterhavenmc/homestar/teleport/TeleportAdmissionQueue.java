@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.teleport;
+
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.messages.MessageId;
+import com.winterhavenmc.homestar.settings.Settings;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+
+
+/**
+ * Limits the number of teleports executed in one tick, so a crowd of players whose warmups end together
+ * does not load every destination chunk on the same tick.<br>
+ * Teleports are admitted until either the configured teleport-limit-per-tick count or the configured
+ * teleport-tick-budget time has been used on the current tick. Teleports beyond that are queued, in order,
+ * and admitted on following ticks. At least one teleport is always admitted per tick, so the queue
+ * always makes progress.<br>
+ * The time budget only applies to synchronous teleports, which do their work on the tick that admits them.
+ * Teleports run asynchronously by the server, or on the player's region thread on a region threaded server,
+ * return before their work is done, so only the count limit applies to them. A player whose teleport is queued is sent the TELEPORT_QUEUED message,
+ * which may be disabled in the language file.
+ * <p>
+ * All methods must be called on the main server thread.
+ */
+final class TeleportAdmissionQueue {
+
+	// reference to plugin main class
+	private final PluginMain plugin;
+
+	// shared warmup scheduler
+	private final WarmupScheduler warmupScheduler;
+
+	// teleports waiting for admission, in order of arrival
+	private final ArrayDeque<DelayedTeleportTask> queue = new ArrayDeque<>();
+
+	// tick for which the admitted count and time were last reset
+	private long admissionTick = -1L;
+
+	// number of teleports admitted, and time spent executing them, on the current tick
+	private int admittedCount;
+	private long admittedNanos;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 * @param warmupScheduler the shared warmup scheduler
+	 */
+	TeleportAdmissionQueue(final PluginMain plugin, final WarmupScheduler warmupScheduler) {
+		this.plugin = Objects.requireNonNull(plugin);
+		this.warmupScheduler = Objects.requireNonNull(warmupScheduler);
+
+		warmupScheduler.scheduleRepeating(this::drain, 1L, 1L);
+	}
+
+
+	/**
+	 * Submit a teleport whose warmup has ended. The teleport is executed now if the current tick
+	 * has capacity and no earlier teleport is waiting, otherwise it is queued.
+	 *
+	 * @param task the teleport task to execute
+	 */
+	void submit(final DelayedTeleportTask task) {
+
+		if (queue.isEmpty() && hasCapacity()) {
+			execute(task);
+			return;
+		}
+
+		queue.add(task);
+		plugin.messageBuilder.compose(task.getPlayer(), MessageId.TELEPORT_QUEUED).send();
+	}
+
+
+	/**
+	 * Get the number of teleports waiting for admission, including cancelled teleports not yet discarded
+	 *
+	 * @return the number of queued teleports
+	 */
+	int size() {
+		return queue.size();
+	}
+
+
+	/**
+	 * Execute queued teleports while the current tick has capacity
+	 */
+	private void drain() {
+		while (!queue.isEmpty() && hasCapacity()) {
+			DelayedTeleportTask task = queue.poll();
+
+			// teleports cancelled while queued do not use any of the tick's capacity
+			if (!task.isCancelled()) {
+				execute(task);
+			}
+		}
+	}
+
+
+	/**
+	 * Check if another teleport may be executed on the current tick
+	 *
+	 * @return {@code true} if the per tick count and time limits have not been reached, {@code false} if not
+	 */
+	private boolean hasCapacity() {
+
+		long currentTick = warmupScheduler.getCurrentTick();
+		if (currentTick != admissionTick) {
+			admissionTick = currentTick;
+			admittedCount = 0;
+			admittedNanos = 0L;
+		}
+
+		// always admit one teleport per tick
+		if (admittedCount == 0) {
+			return true;
+		}
+
+		final Settings settings = plugin.settings;
+		int limit = settings.getTeleportLimitPerTick();
+		long budgetNanos = settings.getTeleportTickBudgetNanos();
+
+		return (limit == 0 || admittedCount < limit)
+				&& (budgetNanos == 0 || admittedNanos < budgetNanos);
+	}
+
+
+	/**
+	 * Execute a teleport, counting it against the current tick. The execution time is counted
+	 * only if the teleport runs synchronously on this thread, so the time measured is its actual work.
+	 *
+	 * @param task the teleport task to execute
+	 */
+	private void execute(final DelayedTeleportTask task) {
+		long startTime = System.nanoTime();
+		task.teleport();
+		if (isSynchronousTeleport()) {
+			admittedNanos += System.nanoTime() - startTime;
+		}
+		admittedCount++;
+	}
+
+
+	/**
+	 * Check if teleports run synchronously on this thread
+	 *
+	 * @return {@code true} if teleports complete on this thread before returning, {@code false} if they are
+	 * run asynchronously or on another region thread
+	 */
+	private boolean isSynchronousTeleport() {
+		return !plugin.taskScheduler.isRegionThreaded()
+				&& TeleportAdapter.isSynchronous(plugin.settings.isAsyncTeleport());
+	}
+
+}
@@ -21,30 +21,41 @@ import com.winterhavenmc.homestar.PluginMain;
 
 import com.winterhavenmc.homestar.messages.Macro;
 import com.winterhavenmc.homestar.messages.MessageId;
+import com.winterhavenmc.homestar.settings.RemoveFromInventory;
 import com.winterhavenmc.homestar.sounds.SoundId;
 
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitTask;
-
-import static com.winterhavenmc.util.TimeUnit.SECONDS;
 
 
 class TeleportExecutor {
 
 	protected final PluginMain plugin;
-	protected final WarmupMap warmupMap;
+	protected final TeleportSessions sessions;
+	protected final WarmupScheduler warmupScheduler;
+	protected final ChunkPreloader chunkPreloader;
+	protected final TeleportAdmissionQueue admissionQueue;
+	protected final DestinationValidator destinationValidator;
 
 
 	/**
 	 * Class constructor
 	 * @param plugin reference to plugin main class
-	 * @param warmupMap player warmup map
+	 * @param sessions player teleport sessions
+	 * @param warmupScheduler shared warmup scheduler
+	 * @param chunkPreloader destination chunk preloader
 	 */
-	TeleportExecutor(final PluginMain plugin, final WarmupMap warmupMap) {
+	TeleportExecutor(final PluginMain plugin,
+	                 final TeleportSessions sessions,
+	                 final WarmupScheduler warmupScheduler,
+	                 final ChunkPreloader chunkPreloader) {
 		this.plugin = plugin;
-		this.warmupMap = warmupMap;
+		this.sessions = sessions;
+		this.warmupScheduler = warmupScheduler;
+		this.chunkPreloader = chunkPreloader;
+		this.admissionQueue = new TeleportAdmissionQueue(plugin, warmupScheduler);
+		this.destinationValidator = new DestinationValidator(plugin);
 	}
 
 
@@ -74,21 +85,25 @@ class TeleportExecutor {
 			return;
 		}
 
+		DelayedTeleportTask teleportTask =
+				new DelayedTeleportTask(plugin, warmupScheduler, player, location, destinationName, playerItem.clone());
+
+		// begin warmup in player session; if player is no longer idle, do nothing and return
+		if (!sessions.get(player).startWarmup(teleportTask)) {
+			return;
+		}
+
 		// if remove-from-inventory is configured on-use, take one LodeStar item from inventory now
 		removeFromInventoryOnUse(player, playerItem);
 
-		// initiate delayed teleport for player to final destination
-		BukkitTask teleportTask = new DelayedTeleportTask(plugin, player, location, destinationName, playerItem.clone())
-				.runTaskLater(plugin, SECONDS.toTicks(plugin.getConfig().getLong("teleport-warmup")));
+		// initiate delayed teleport for player to final destination, preloading destination chunk
+		// and checking destination safety during warmup
+		teleportTask.start(plugin.settings.getTeleportWarmupTicks(), chunkPreloader, admissionQueue, destinationValidator);
 
 		// if configured warmup time is greater than zero, send warmup message
 		sendWarmupMessage(player, destinationName);
 
-		// insert player and taskId into warmup hashmap
-		warmupMap.startPlayerWarmUp(player, teleportTask.getTaskId());
-
-		// load destination chunk if not already loaded
-		loadDestinationChunk(location);
+		plugin.metricsRegistry.recordStarted();
 
 		// if log-use is enabled in config, write log entry
 		logUsage(player);
@@ -104,13 +119,13 @@ class TeleportExecutor {
 	private void sendWarmupMessage(final Player player, final String destinationName) {
 
 		// get configured warmup time
-		long warmupTime = plugin.getConfig().getLong("teleport-warmup");
+		long warmupMillis = plugin.settings.getTeleportWarmupMillis();
 
 		// if warmup time is greater than zero, send player warmup message
-		if (warmupTime > 0) {
+		if (warmupMillis > 0) {
 			plugin.messageBuilder.compose(player, MessageId.TELEPORT_WARMUP)
 					.setMacro(Macro.DESTINATION, destinationName)
-					.setMacro(Macro.DURATION, SECONDS.toMillis(warmupTime))
+					.setMacro(Macro.DURATION, plugin.messageCache.getDurationString(warmupMillis))
 					.send();
 
 			// if enabled, play teleport warmup sound effect
@@ -119,21 +134,6 @@ class TeleportExecutor {
 	}
 
 
-	/**
-	 * Preload chunk at teleport destination if not already loaded
-	 *
-	 * @param location the destination location
-	 */
-	private void loadDestinationChunk(final Location location) {
-
-		if (location != null && location.getWorld() != null) {
-			if (!location.getWorld().getChunkAt(location).isLoaded()) {
-				location.getWorld().getChunkAt(location).load();
-			}
-		}
-	}
-
-
 	/**
 	 * Check if player is within configured minimum distance from destination location
 	 *
@@ -145,7 +145,7 @@ class TeleportExecutor {
 		return location != null
 				&& location.getWorld() != null
 				&& player.getWorld().equals(location.getWorld())
-				&& player.getLocation().distanceSquared(location) < Math.pow(plugin.getConfig().getInt("minimum-distance"), 2);
+				&& player.getLocation().distanceSquared(location) < plugin.settings.getMinimumDistanceSquared();
 	}
 
 
@@ -156,8 +156,7 @@ class TeleportExecutor {
 	 */
 	final void removeFromInventoryOnUse(final Player player, final ItemStack playerItem) {
 		// if remove-from-inventory is configured on-use, take one LodeStar item from inventory now
-		String removeItem = plugin.getConfig().getString("remove-from-inventory");
-		if (removeItem != null && removeItem.equalsIgnoreCase("on-use")) {
+		if (plugin.settings.getRemoveFromInventory() == RemoveFromInventory.ON_USE) {
 			playerItem.setAmount(playerItem.getAmount() - 1);
 			player.getInventory().setItemInMainHand(playerItem);
 		}
@@ -172,7 +171,7 @@ class TeleportExecutor {
 	private void logUsage(final Player player) {
 
 		// if log-use is enabled in config, write log entry
-		if (plugin.getConfig().getBoolean("log-use")) {
+		if (plugin.settings.isLogUse()) {
 
 			// send message to console
 			plugin.messageBuilder.compose(plugin.getServer().getConsoleSender(), MessageId.LOG_USAGE)
@@ -18,26 +18,50 @@
 package com.winterhavenmc.homestar.teleport;
 
 import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.listeners.WarmupListenerGate;
 import com.winterhavenmc.homestar.messages.Macro;
 import com.winterhavenmc.homestar.messages.MessageId;
 
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 
+import java.util.Optional;
+
 
 /**
  * Class that manages player teleportation, including warmup and cooldown.
  */
 public final class TeleportHandler {
 
+	// name of file in plugin data folder that persists player cooldowns across restarts
+	private static final String COOLDOWN_JOURNAL_FILENAME = "cooldowns.dat";
+
 	// reference to main class
 	private final PluginMain plugin;
 
 	// Map containing player UUID as key and cooldown expire time in milliseconds as value
 	private final CooldownMap cooldownMap;
 
-	// Map containing player UUID as key and warmup task id as value
+	// Map containing player UUID as key and delayed teleport task as value
 	private final WarmupMap warmupMap;
 
+	// teleport sessions of online players
+	private final TeleportSessions sessions;
+
+	// shared tick driven scheduler for warmup tasks
+	private final WarmupScheduler warmupScheduler;
+
+	// registers warmup cancellation listeners while any player is warming up
+	private final WarmupListenerGate warmupListenerGate;
+
+	// draws warmup particle effects for all warming up players
+	private final ParticleEngine particleEngine;
+
+	// cache of resolved player bed spawn locations
+	private final HomeLocationCache homeLocationCache;
+
 	// teleport executor instance that serves all teleporters
 	private final TeleportExecutor teleportExecutor;
 
@@ -49,9 +73,66 @@ public final class TeleportHandler {
 	 */
 	public TeleportHandler(final PluginMain plugin) {
 		this.plugin = plugin;
-		this.cooldownMap = new CooldownMap(plugin);
-		this.warmupMap = new WarmupMap(plugin);
-		this.teleportExecutor = new TeleportExecutor(plugin, warmupMap);
+		this.homeLocationCache = new HomeLocationCache(plugin);
+		this.cooldownMap = new CooldownMap(plugin, new CooldownJournal(
+				plugin.getDataFolder().toPath().resolve(COOLDOWN_JOURNAL_FILENAME), plugin.getLogger()));
+		this.warmupScheduler = new WarmupScheduler(plugin);
+		this.warmupListenerGate = new WarmupListenerGate(plugin);
+		this.warmupMap = new WarmupMap(warmupListenerGate);
+		this.sessions = new TeleportSessions(cooldownMap, warmupMap, warmupScheduler);
+		this.particleEngine = new ParticleEngine(plugin, warmupScheduler, warmupMap);
+		this.teleportExecutor = new TeleportExecutor(plugin, sessions, warmupScheduler,
+				new ChunkPreloader(plugin, warmupScheduler));
+	}
+
+
+	/**
+	 * Apply reloaded settings to warmup cancellation listeners
+	 */
+	public void reload() {
+		warmupListenerGate.reload();
+		homeLocationCache.clear();
+	}
+
+
+	/**
+	 * Finish pending cooldown journal writes. Called when the plugin is disabled.
+	 */
+	public void shutdown() {
+		cooldownMap.close();
+	}
+
+
+	/**
+	 * Open a teleport session for a player. Called when a player joins.
+	 *
+	 * @param player the player
+	 */
+	public void openSession(final Player player) {
+		sessions.get(player);
+	}
+
+
+	/**
+	 * Cancel any pending teleport for a player and close their teleport session. Called when a player quits.
+	 *
+	 * @param player the player
+	 */
+	public void closeSession(final Player player) {
+		cancelTeleport(player, CancelReason.QUIT);
+		sessions.remove(player);
+	}
+
+
+	/**
+	 * Get the teleport session of a player, opening one if the player has none.
+	 * Event handlers look the session up once, and pass it to the methods that take a session.
+	 *
+	 * @param player the player
+	 * @return the player's teleport session
+	 */
+	public TeleportSession getSession(final Player player) {
+		return sessions.get(player);
 	}
 
 
@@ -61,17 +142,32 @@ public final class TeleportHandler {
 	 * @param player the player being teleported
 	 */
 	public void initiateTeleport(final Player player) {
+		initiateTeleport(sessions.get(player));
+	}
+
+
+	/**
+	 * Start the player teleport
+	 *
+	 * @param session the teleport session of the player being teleported
+	 */
+	public void initiateTeleport(final TeleportSession session) {
 
-		// if player is warming up, do nothing and return
-		if (plugin.teleportHandler.isWarmingUp(player)) {
+		final Player player = session.getPlayer();
+		final TeleportSession.State state = session.getState();
+
+		// if player is warming up or being teleported, do nothing and return
+		if (state == TeleportSession.State.WARMING || state == TeleportSession.State.TELEPORTING) {
 			return;
 		}
 
-		// if player cooldown has not expired, send player cooldown message and return
-		if (cooldownMap.isCoolingDown(player)) {
-			plugin.messageBuilder.compose(player, MessageId.TELEPORT_COOLDOWN)
-					.setMacro(Macro.DURATION, cooldownMap.getCooldownTimeRemaining(player))
-					.send();
+		// if player cooldown has not expired, send player cooldown message unless recently sent, and return
+		if (state == TeleportSession.State.COOLING) {
+			if (plugin.feedbackDebouncer.tryAcquire(player, MessageId.TELEPORT_COOLDOWN)) {
+				plugin.messageBuilder.compose(player, MessageId.TELEPORT_COOLDOWN)
+						.setMacro(Macro.DURATION, plugin.messageCache.getDurationString(session.getCooldownTimeRemaining()))
+						.send();
+			}
 			return;
 		}
 
@@ -85,34 +181,73 @@ public final class TeleportHandler {
 	 * @param player the player whose teleport will be cancelled
 	 */
 	public void cancelTeleport(final Player player) {
+		cancelTeleport(player, CancelReason.API);
+	}
+
+
+	/**
+	 * Cancel pending player teleport, recording the reason in teleport metrics
+	 *
+	 * @param player the player whose teleport will be cancelled
+	 * @param reason the reason the teleport is cancelled
+	 */
+	public void cancelTeleport(final Player player, final CancelReason reason) {
 
 		// check for null parameter
 		if (player == null) {
 			return;
 		}
 
-		// if player is in warmup hashmap, cancel delayed teleport task and remove player from warmup hashmap
-		if (isWarmingUp(player)) {
+		sessions.find(player).ifPresent(session -> cancelTeleport(session, reason));
+	}
+
+
+	/**
+	 * Cancel pending player teleport, recording the reason in teleport metrics
+	 *
+	 * @param session the teleport session of the player whose teleport will be cancelled
+	 * @param reason the reason the teleport is cancelled
+	 */
+	public void cancelTeleport(final TeleportSession session, final CancelReason reason) {
 
-			// get delayed teleport task id
-			int taskId = warmupMap.getTaskId(player);
+		// if player is warming up, end warmup and cancel delayed teleport task
+		session.cancelWarmup().ifPresent(teleportTask -> {
+			teleportTask.cancel();
+			plugin.metricsRegistry.recordCancelled(reason);
+		});
+	}
 
-			// cancel delayed teleport task
-			plugin.getServer().getScheduler().cancelTask(taskId);
 
-			// remove player from warmup hashmap
-			removeWarmingUpPlayer(player);
-		}
+	/**
+	 * End the warmup of a teleport task and begin its teleport, if the player is still warming up with the task
+	 *
+	 * @param player the player being teleported
+	 * @param teleportTask the teleport task whose warmup has ended
+	 * @return {@code true} if the teleport began, {@code false} if the warmup was cancelled
+	 */
+	boolean beginTeleport(final Player player, final DelayedTeleportTask teleportTask) {
+		return sessions.find(player).map(session -> session.beginTeleport(teleportTask)).orElse(false);
 	}
 
 
 	/**
-	 * Insert player into cooldown map
+	 * End a teleport without starting a cooldown. Called when a teleport fails.
+	 *
+	 * @param player the player whose teleport failed
+	 */
+	void endTeleport(final Player player) {
+		sessions.find(player).ifPresent(session -> session.finishTeleport(0L));
+	}
+
+
+	/**
+	 * End a teleport and insert player into cooldown map
 	 *
 	 * @param player the player being inserted into the cooldown map
 	 */
 	void startPlayerCooldown(final Player player) {
-		cooldownMap.startPlayerCooldown(player);
+		long expireTime = cooldownMap.startPlayerCooldown(player);
+		sessions.find(player).ifPresent(session -> session.finishTeleport(expireTime));
 	}
 
 
@@ -123,39 +258,107 @@ public final class TeleportHandler {
 	 * @return long remainingTime
 	 */
 	public long getCooldownTimeRemaining(final Player player) {
-		return cooldownMap.getCooldownTimeRemaining(player);
+		return sessions.find(player)
+				.map(TeleportSession::getCooldownTimeRemaining)
+				.orElseGet(() -> cooldownMap.getCooldownTimeRemaining(player));
 	}
 
 
 	/**
-	 * Check if player is in teleport initiated set. Public pass through method.
+	 * Test if player is warming up
 	 *
-	 * @param player the player to check if teleport is initiated
-	 * @return {@code true} if teleport been initiated, {@code false} if it has not
+	 * @param player the player to test
+	 * @return {@code true} if player is warming up, {@code false} if not
 	 */
-	public boolean isInitiated(final Player player) {
-		return warmupMap.isInitiated(player);
+	public boolean isWarmingUp(final Player player) {
+		return sessions.find(player).map(session -> session.getState() == TeleportSession.State.WARMING).orElse(false);
 	}
 
 
 	/**
-	 * Test if player uuid is in warmup hashmap. Public pass through method.
+	 * Get a player's bed spawn location, using cached location if available
 	 *
-	 * @param player the player to test if in warmup map
-	 * @return {@code true} if player is in warmup map, {@code false} if not
+	 * @param player the player
+	 * @return {@link Optional} wrapped player bed spawn location, or an empty Optional if the player has none
 	 */
-	public boolean isWarmingUp(final Player player) {
-		return warmupMap.isWarmingUp(player);
+	Optional<Location> getHomeLocation(final Player player) {
+		return homeLocationCache.getHomeLocation(player);
+	}
+
+
+	/**
+	 * Discard cached bed spawn location for a player
+	 *
+	 * @param player the player
+	 */
+	public void invalidateHomeLocation(final Player player) {
+		homeLocationCache.invalidate(player.getUniqueId());
+	}
+
+
+	/**
+	 * Discard cached bed spawn locations near a destroyed bed or respawn anchor
+	 *
+	 * @param block the destroyed block
+	 */
+	public void invalidateHomeLocationsNear(final Block block) {
+		homeLocationCache.invalidateNear(block);
+	}
+
+
+	/**
+	 * Discard cached bed spawn locations in a world
+	 *
+	 * @param world the world
+	 */
+	public void invalidateHomeLocationsInWorld(final World world) {
+		homeLocationCache.invalidateWorld(world);
+	}
+
+
+	/**
+	 * Check if a warming up player has moved away from where their warmup started
+	 *
+	 * @param player the player to check
+	 * @param location the location the player is moving to
+	 * @return {@code true} if the player is warming up and the location is away from the warmup origin,
+	 * {@code false} if not
+	 */
+	public boolean isMovedDuringWarmup(final Player player, final Location location) {
+		return sessions.find(player)
+				.flatMap(TeleportSession::getWarmupTask)
+				.map(teleportTask -> teleportTask.isMovedFromOrigin(location))
+				.orElse(false);
+	}
+
+
+	/**
+	 * Get the number of players currently warming up
+	 *
+	 * @return the number of entries in the warmup map
+	 */
+	int getWarmupCount() {
+		return warmupMap.size();
+	}
+
+
+	/**
+	 * Get the number of entries in the cooldown map, including expired entries not yet removed
+	 *
+	 * @return the number of entries in the cooldown map
+	 */
+	int getCooldownCount() {
+		return cooldownMap.size();
 	}
 
 
 	/**
-	 * Remove player uuid from warmup hashmap. Public pass through method.
+	 * Get the number of open teleport sessions
 	 *
-	 * @param player the player to remove from the warmup map
+	 * @return the number of open teleport sessions
 	 */
-	public void removeWarmingUpPlayer(final Player player) {
-		warmupMap.removePlayer(player);
+	int getSessionCount() {
+		return sessions.size();
 	}
 
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.teleport;
+
+import org.bukkit.entity.Player;
+
+import java.util.Optional;
+
+
+/**
+ * Teleport state of one online player.<br>
+ * A session is created when a player joins and discarded when they quit, and is the authoritative record of
+ * whether the player is idle, warming up, being teleported or cooling down. Transitions are made by
+ * synchronized methods that check the current state, so a warmup that is cancelled while its teleport is
+ * firing either teleports or is cancelled, never both. The warmup map, which drives warmup particles and
+ * cancellation listeners, is only updated by these transitions, so it always agrees with the session state.
+ * <pre>
+ * IDLE --startWarmup--&gt; WARMING --beginTeleport--&gt; TELEPORTING --finishTeleport--&gt; COOLING or IDLE
+ *                         WARMING --cancelWarmup--&gt; IDLE
+ *                                              COOLING --cooldown expires--&gt; IDLE
+ * </pre>
+ * The session also records the tick of the player's last handled interaction, so interact events that fire
+ * once for each hand, or immediately after a warmup starts, can be recognized without scheduling a task.
+ */
+public final class TeleportSession {
+
+	/**
+	 * Teleport states of a player
+	 */
+	public enum State {
+		IDLE,
+		WARMING,
+		TELEPORTING,
+		COOLING,
+	}
+
+	// player whose session this is
+	private final Player player;
+
+	// map of warming up players, updated by warmup transitions
+	private final WarmupMap warmupMap;
+
+	// shared warmup scheduler, source of the current tick for interaction stamps
+	private final WarmupScheduler warmupScheduler;
+
+	// current state
+	private State state;
+
+	// teleport task of the current warmup, while warming up or teleporting
+	private DelayedTeleportTask teleportTask;
+
+	// time the current cooldown expires, in milliseconds, while cooling down
+	private long cooldownExpireTime;
+
+	// warmup scheduler tick of the last handled interaction
+	private long interactionTick = Long.MIN_VALUE;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param player the player whose session this is
+	 * @param cooldownExpireTime the time an existing cooldown expires, in milliseconds, or zero if none
+	 * @param warmupMap the map of warming up players
+	 * @param warmupScheduler the shared warmup scheduler
+	 */
+	TeleportSession(final Player player,
+	                final long cooldownExpireTime,
+	                final WarmupMap warmupMap,
+	                final WarmupScheduler warmupScheduler) {
+		this.player = player;
+		this.warmupMap = warmupMap;
+		this.warmupScheduler = warmupScheduler;
+		this.cooldownExpireTime = cooldownExpireTime;
+		this.state = cooldownExpireTime > System.currentTimeMillis() ? State.COOLING : State.IDLE;
+	}
+
+
+	/**
+	 * Get the player whose session this is
+	 *
+	 * @return the player
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+
+
+	/**
+	 * Get the current state. A cooldown that has expired ends here.
+	 *
+	 * @return the current state
+	 */
+	public synchronized State getState() {
+		if (state == State.COOLING && cooldownExpireTime <= System.currentTimeMillis()) {
+			state = State.IDLE;
+		}
+		return state;
+	}
+
+
+	/**
+	 * Begin a warmup, if the player is idle, and record the warmup start as a handled interaction,
+	 * so the click that started the warmup does not also cancel it
+	 *
+	 * @param task the teleport task of the warmup
+	 * @return {@code true} if the warmup began, {@code false} if the player was not idle
+	 */
+	synchronized boolean startWarmup(final DelayedTeleportTask task) {
+		if (getState() != State.IDLE) {
+			return false;
+		}
+		teleportTask = task;
+		state = State.WARMING;
+		interactionTick = warmupScheduler.getCurrentTick();
+		warmupMap.startPlayerWarmUp(player, task);
+		return true;
+	}
+
+
+	/**
+	 * Cancel the current warmup, if the player is warming up
+	 *
+	 * @return the teleport task of the cancelled warmup wrapped in an {@link Optional},
+	 * or an empty Optional if the player was not warming up
+	 */
+	synchronized Optional<DelayedTeleportTask> cancelWarmup() {
+		if (state != State.WARMING) {
+			return Optional.empty();
+		}
+		DelayedTeleportTask task = teleportTask;
+		teleportTask = null;
+		state = State.IDLE;
+		warmupMap.removePlayer(player);
+		return Optional.of(task);
+	}
+
+
+	/**
+	 * End the warmup of a teleport task and begin its teleport, if the task's warmup is current
+	 *
+	 * @param task the teleport task whose warmup has ended
+	 * @return {@code true} if the teleport began, {@code false} if the warmup was cancelled or replaced
+	 */
+	synchronized boolean beginTeleport(final DelayedTeleportTask task) {
+		if (state != State.WARMING || teleportTask != task) {
+			return false;
+		}
+		state = State.TELEPORTING;
+		warmupMap.removePlayer(player);
+		return true;
+	}
+
+
+	/**
+	 * End a teleport, starting a cooldown if it has not already expired
+	 *
+	 * @param expireTime the time the cooldown expires, in milliseconds, or zero for no cooldown
+	 */
+	synchronized void finishTeleport(final long expireTime) {
+		teleportTask = null;
+		cooldownExpireTime = expireTime;
+		state = expireTime > System.currentTimeMillis() ? State.COOLING : State.IDLE;
+	}
+
+
+	/**
+	 * Get the teleport task of the current warmup
+	 *
+	 * @return the teleport task wrapped in an {@link Optional}, or an empty Optional if the player is not warming up
+	 */
+	synchronized Optional<DelayedTeleportTask> getWarmupTask() {
+		return state == State.WARMING ? Optional.of(teleportTask) : Optional.empty();
+	}
+
+
+	/**
+	 * Record that an interaction by the player was handled on the current tick
+	 */
+	public synchronized void recordInteraction() {
+		interactionTick = warmupScheduler.getCurrentTick();
+	}
+
+
+	/**
+	 * Check if an interaction by the player was handled within a number of ticks before the current tick.
+	 * Interact events fire once for each hand, so the event for the second hand sees the first as handled
+	 * on the current tick.
+	 *
+	 * @param windowTicks the number of ticks before the current tick to check; zero checks only the current tick
+	 * @return {@code true} if an interaction was handled within the window, {@code false} if not
+	 */
+	public synchronized boolean isInteractionWithin(final long windowTicks) {
+		return interactionTick >= warmupScheduler.getCurrentTick() - windowTicks;
+	}
+
+
+	/**
+	 * Get the time remaining in the current cooldown
+	 *
+	 * @return the remaining time in milliseconds, or zero if the player is not cooling down
+	 */
+	public synchronized long getCooldownTimeRemaining() {
+		return getState() == State.COOLING ? cooldownExpireTime - System.currentTimeMillis() : 0L;
+	}
+
+}
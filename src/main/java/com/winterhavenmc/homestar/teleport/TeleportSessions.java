@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package com.winterhavenmc.homestar.teleport;
+
+import org.bukkit.entity.Player;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Teleport sessions of online players, keyed by player uuid.<br>
+ * A session is opened when a player joins, or on first use by a player who was online before the plugin
+ * was enabled, and closed when they quit. A new session starts cooling down if the persistent cooldown map
+ * holds an unexpired cooldown for the player.
+ */
+final class TeleportSessions {
+
+	// map of player uuid to teleport session
+	private final ConcurrentHashMap<UUID, TeleportSession> sessions = new ConcurrentHashMap<>();
+
+	// persistent cooldown map, read when a session is opened
+	private final CooldownMap cooldownMap;
+
+	// map of warming up players, updated by session transitions
+	private final WarmupMap warmupMap;
+
+	// shared warmup scheduler, source of the current tick for interaction stamps
+	private final WarmupScheduler warmupScheduler;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param cooldownMap the persistent cooldown map
+	 * @param warmupMap the map of warming up players
+	 * @param warmupScheduler the shared warmup scheduler
+	 */
+	TeleportSessions(final CooldownMap cooldownMap, final WarmupMap warmupMap, final WarmupScheduler warmupScheduler) {
+		this.cooldownMap = cooldownMap;
+		this.warmupMap = warmupMap;
+		this.warmupScheduler = warmupScheduler;
+	}
+
+
+	/**
+	 * Get the session of a player, opening one if the player has none
+	 *
+	 * @param player the player
+	 * @return the player's teleport session
+	 */
+	TeleportSession get(final Player player) {
+		return sessions.computeIfAbsent(player.getUniqueId(),
+				uuid -> new TeleportSession(player, cooldownMap.getCooldownExpireTime(uuid), warmupMap, warmupScheduler));
+	}
+
+
+	/**
+	 * Get the session of a player, without opening one
+	 *
+	 * @param player the player
+	 * @return the player's teleport session wrapped in an {@link Optional}, or an empty Optional if the player has none
+	 */
+	Optional<TeleportSession> find(final Player player) {
+		return Optional.ofNullable(sessions.get(player.getUniqueId()));
+	}
+
+
+	/**
+	 * Close the session of a player
+	 *
+	 * @param player the player
+	 * @return the closed session wrapped in an {@link Optional}, or an empty Optional if the player had none
+	 */
+	Optional<TeleportSession> remove(final Player player) {
+		return Optional.ofNullable(sessions.remove(player.getUniqueId()));
+	}
+
+
+	/**
+	 * Get the number of open sessions
+	 *
+	 * @return the number of open sessions
+	 */
+	int size() {
+		return sessions.size();
+	}
+
+}
@@ -17,36 +17,32 @@
 
 package com.winterhavenmc.homestar.teleport;
 
+import com.winterhavenmc.homestar.listeners.WarmupListenerGate;
+
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.Set;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 class WarmupMap {
 
-	// reference to plugin main class
-	private final JavaPlugin plugin;
-
-	// HashMap containing player UUID as key and warmup task id as value
-	private final ConcurrentHashMap<UUID, Integer> warmupMap;
+	// HashMap containing player UUID as key and delayed teleport task as value
+	private final ConcurrentHashMap<UUID, DelayedTeleportTask> warmupMap;
 
-	// Map containing player uuid for teleport initiated
-	private final Set<UUID> teleportInitiated;
+	// registers warmup cancellation listeners only while map is not empty
+	private final WarmupListenerGate listenerGate;
 
 
-	WarmupMap(final JavaPlugin plugin) {
+	WarmupMap(final WarmupListenerGate listenerGate) {
 
-		// set reference to main class
-		this.plugin = plugin;
+		// set reference to warmup listener gate
+		this.listenerGate = listenerGate;
 
 		// initialize warmup HashMap
 		warmupMap = new ConcurrentHashMap<>();
-
-		// initialize teleport initiated set
-		teleportInitiated = ConcurrentHashMap.newKeySet();
 	}
 
 
@@ -56,7 +52,14 @@ class WarmupMap {
 	 * @param player the player to remove from the warmup map
 	 */
 	void removePlayer(final Player player) {
-		warmupMap.remove(player.getUniqueId());
+
+		// if last warming up player was removed, unregister warmup cancellation listeners;
+		// synchronized with insertion, so a warmup started on another region thread cannot be left without listeners
+		synchronized (listenerGate) {
+			if (warmupMap.remove(player.getUniqueId()) != null && warmupMap.isEmpty()) {
+				listenerGate.close();
+			}
+		}
 	}
 
 
@@ -72,54 +75,52 @@ class WarmupMap {
 
 
 	/**
-	 * Insert player uuid and taskId into warmup hashmap.
+	 * Insert player uuid and delayed teleport task into warmup hashmap.
 	 *
 	 * @param player the player to be inserted in the warmup map
-	 * @param taskId the taskId of the player's delayed teleport task
+	 * @param teleportTask the player's delayed teleport task
 	 */
-	void startPlayerWarmUp(final Player player, final Integer taskId) {
+	void startPlayerWarmUp(final Player player, final DelayedTeleportTask teleportTask) {
 
-		warmupMap.put(player.getUniqueId(), taskId);
-
-		// insert player uuid into teleport initiated set
-		teleportInitiated.add(player.getUniqueId());
-
-		// create task to remove player uuid from tpi set after set amount of ticks (default: 2)
-		new BukkitRunnable() {
-			@Override
-			public void run() {
-				teleportInitiated.remove(player.getUniqueId());
-			}
-		}.runTaskLater(plugin, plugin.getConfig().getInt("interact-delay", 2));
+		final UUID playerUid = player.getUniqueId();
 
+		// if first warming up player was inserted, register warmup cancellation listeners
+		synchronized (listenerGate) {
+			warmupMap.put(playerUid, teleportTask);
+			listenerGate.open();
+		}
 	}
 
 
 	/**
-	 * Get the task id for a warming up player
+	 * Get the delayed teleport task for a warming up player
 	 *
 	 * @param player the player
-	 * @return the task id for the player
+	 * @return the delayed teleport task for the player wrapped in an {@link Optional},
+	 * or an empty Optional if the player is not warming up
 	 */
-	int getTaskId(final Player player) {
-		return warmupMap.get(player.getUniqueId());
+	Optional<DelayedTeleportTask> getTeleportTask(final Player player) {
+		return Optional.ofNullable(warmupMap.get(player.getUniqueId()));
 	}
 
 
 	/**
-	 * Check if player is in teleport initiated set
+	 * Get the delayed teleport tasks of all warming up players
 	 *
-	 * @param player the player to check if teleport is initiated
-	 * @return {@code true} if teleport been initiated, {@code false} if it has not
+	 * @return an unmodifiable view of the delayed teleport tasks in the warmup map
 	 */
-	boolean isInitiated(final Player player) {
+	Collection<DelayedTeleportTask> getTeleportTasks() {
+		return Collections.unmodifiableCollection(warmupMap.values());
+	}
 
-		// check for null parameter
-		if (player == null) {
-			return false;
-		}
 
-		return !teleportInitiated.contains(player.getUniqueId());
+	/**
+	 * Get the number of players currently warming up
+	 *
+	 * @return the number of entries in the warmup map
+	 */
+	int size() {
+		return warmupMap.size();
 	}
 
 }
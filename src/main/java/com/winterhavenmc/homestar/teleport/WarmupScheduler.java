@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.teleport;
+
+import com.winterhavenmc.homestar.PluginMain;
+
+import com.winterhavenmc.homestar.scheduler.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+
+/**
+ * A single plugin-wide, tick driven scheduler for warmup related tasks.<br>
+ * Tasks are kept in a timing wheel of buckets indexed by fire tick, so scheduling and cancelling
+ * a task are constant time operations, and all tasks that expire on a given tick are fired
+ * together from one repeating Bukkit task instead of each occupying its own scheduler entry.
+ * Tasks with a delay longer than the wheel size stay in their bucket until the wheel has
+ * turned enough times to reach their fire tick.
+ * <p>
+ * The wheel is turned by a repeating global task of the plugin task scheduler. Tasks may be scheduled
+ * from any thread; newly scheduled tasks are passed to the wheel through a concurrent queue that is
+ * drained at the start of each tick, so on a region threaded server event handlers running on region
+ * threads can schedule tasks safely. Scheduled tasks themselves run on the global tick thread.
+ */
+final class WarmupScheduler {
+
+	// number of buckets in the timing wheel; must be a power of two
+	private static final int WHEEL_SIZE = 256;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+	// reference to plugin main class
+	private final PluginMain plugin;
+
+	// timing wheel buckets, indexed by fire tick modulo wheel size
+	private final ArrayList<ScheduledTask>[] wheel;
+
+	// empty bucket swapped in for the bucket currently being fired
+	private ArrayList<ScheduledTask> spareBucket = new ArrayList<>();
+
+	// newly scheduled tasks, waiting to be placed in the wheel on the next tick
+	private final ConcurrentLinkedQueue<ScheduledTask> scheduledQueue = new ConcurrentLinkedQueue<>();
+
+	// number of ticks this scheduler has run
+	private volatile long currentTick;
+
+	// repeating task that turns the wheel
+	private final TaskScheduler.Task tickTask;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	WarmupScheduler(final PluginMain plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+
+		this.wheel = new ArrayList[WHEEL_SIZE];
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			wheel[i] = new ArrayList<>();
+		}
+
+		this.tickTask = plugin.taskScheduler.runRepeating(this::tick, 1L, 1L);
+	}
+
+
+	/**
+	 * Schedule a task to run once after a delay
+	 *
+	 * @param task the task to run
+	 * @param delayTicks the number of ticks to wait before running the task
+	 * @return a handle that may be used to cancel the task
+	 */
+	ScheduledTask schedule(final Runnable task, final long delayTicks) {
+		return enqueue(new ScheduledTask(task, 0L), delayTicks);
+	}
+
+
+	/**
+	 * Schedule a task to run repeatedly until cancelled
+	 *
+	 * @param task the task to run
+	 * @param delayTicks the number of ticks to wait before the first run
+	 * @param periodTicks the number of ticks between runs
+	 * @return a handle that may be used to cancel the task
+	 */
+	ScheduledTask scheduleRepeating(final Runnable task, final long delayTicks, final long periodTicks) {
+		return enqueue(new ScheduledTask(task, Math.max(1L, periodTicks)), delayTicks);
+	}
+
+
+	/**
+	 * Get the number of ticks this scheduler has run
+	 *
+	 * @return the current tick count
+	 */
+	long getCurrentTick() {
+		return currentTick;
+	}
+
+
+	/**
+	 * Set the fire tick of a newly scheduled task, and queue it for placement in the wheel on the next tick
+	 *
+	 * @param scheduledTask the task to queue
+	 * @param delayTicks the number of ticks from now that the task should fire
+	 * @return the queued task
+	 */
+	private ScheduledTask enqueue(final ScheduledTask scheduledTask, final long delayTicks) {
+		scheduledTask.fireTick = currentTick + Math.max(1L, delayTicks);
+		scheduledQueue.add(scheduledTask);
+		return scheduledTask;
+	}
+
+
+	/**
+	 * Place a task in the bucket for its fire tick
+	 *
+	 * @param scheduledTask the task to insert
+	 */
+	private void insert(final ScheduledTask scheduledTask) {
+		wheel[(int) (scheduledTask.fireTick & WHEEL_MASK)].add(scheduledTask);
+	}
+
+
+	/**
+	 * Advance the wheel one tick and fire every task in the current bucket that has reached its fire tick
+	 */
+	private void tick() {
+
+		currentTick++;
+
+		// place newly scheduled tasks in the wheel; a task scheduled on another thread while the previous
+		// tick was running may already be due, and is placed in the current bucket to fire now
+		ScheduledTask queuedTask;
+		while ((queuedTask = scheduledQueue.poll()) != null) {
+			queuedTask.fireTick = Math.max(queuedTask.fireTick, currentTick);
+			insert(queuedTask);
+		}
+
+		int slot = (int) (currentTick & WHEEL_MASK);
+
+		// if bucket is empty, there is nothing to do this tick
+		if (wheel[slot].isEmpty()) {
+			return;
+		}
+
+		// swap in an empty bucket, so tasks scheduled while firing do not modify the bucket being iterated
+		ArrayList<ScheduledTask> bucket = wheel[slot];
+		wheel[slot] = spareBucket;
+		spareBucket = bucket;
+
+		for (ScheduledTask scheduledTask : bucket) {
+
+			// drop cancelled tasks
+			if (scheduledTask.isCancelled()) {
+				continue;
+			}
+
+			// keep tasks due on a later turn of the wheel
+			if (scheduledTask.fireTick > currentTick) {
+				wheel[slot].add(scheduledTask);
+				continue;
+			}
+
+			try {
+				scheduledTask.task.run();
+			}
+			catch (RuntimeException e) {
+				plugin.getLogger().log(Level.WARNING, "A scheduled warmup task threw an exception.", e);
+			}
+
+			// reschedule repeating tasks that were not cancelled while running
+			if (scheduledTask.period > 0 && !scheduledTask.isCancelled()) {
+				scheduledTask.fireTick = currentTick + scheduledTask.period;
+				insert(scheduledTask);
+			}
+		}
+
+		bucket.clear();
+	}
+
+
+	/**
+	 * Handle for a task scheduled on the warmup scheduler
+	 */
+	static final class ScheduledTask {
+
+		private final Runnable task;
+		private final long period;
+		private long fireTick;
+		private volatile boolean cancelled;
+
+
+		private ScheduledTask(final Runnable task, final long period) {
+			this.task = Objects.requireNonNull(task);
+			this.period = period;
+		}
+
+
+		/**
+		 * Cancel this task. A cancelled task is removed from the wheel when its bucket is next fired.
+		 */
+		void cancel() {
+			cancelled = true;
+		}
+
+
+		/**
+		 * Check if this task has been cancelled
+		 *
+		 * @return {@code true} if this task has been cancelled, {@code false} if not
+		 */
+		boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+}
@@ -19,16 +19,21 @@ package com.winterhavenmc.homestar.util;
 
 import com.winterhavenmc.homestar.PluginMain;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -42,12 +47,40 @@ public final class HomeStarFactory {
 	// name spaced key for persistent data
 	private final NamespacedKey PERSISTENT_KEY;
 
+	// template item stack that new items are cloned from, and the version it was built for
+	private final AtomicReference<Template> template = new AtomicReference<>();
+
+	// version incremented on each reload, invalidating any template built before it
+	private final AtomicLong templateVersion = new AtomicLong();
+
 	// item metadata flags
 	private static final Set<ItemFlag> itemFlagSet = Set.of(
 			ItemFlag.HIDE_ATTRIBUTES,
 			ItemFlag.HIDE_ENCHANTS,
 			ItemFlag.HIDE_UNBREAKABLE );
 
+	// handles for reading item persistent data without copying item metadata, or null if not available
+	private static final MethodHandle GET_ITEM_DATA_CONTAINER;
+	private static final MethodHandle DATA_CONTAINER_HAS;
+
+	static {
+		MethodHandle getItemDataContainer = null;
+		MethodHandle dataContainerHas = null;
+		try {
+			Method method = ItemStack.class.getMethod("getPersistentDataContainer");
+			getItemDataContainer = MethodHandles.publicLookup().unreflect(method);
+			dataContainerHas = MethodHandles.publicLookup().findVirtual(method.getReturnType(), "has",
+					MethodType.methodType(boolean.class, NamespacedKey.class, PersistentDataType.class));
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			// server does not expose item persistent data directly; item metadata will be copied
+			getItemDataContainer = null;
+			dataContainerHas = null;
+		}
+		GET_ITEM_DATA_CONTAINER = getItemDataContainer;
+		DATA_CONTAINER_HAS = dataContainerHas;
+	}
+
 
 	/**
 	 * class constructor
@@ -78,8 +111,8 @@ public final class HomeStarFactory {
 	 */
 	public ItemStack create(final int quantity) {
 
-		// get default item stack
-		ItemStack itemStack = getDefaultItemStack();
+		// clone template item stack, which already has material and metadata set
+		ItemStack itemStack = getTemplate().clone();
 
 		// validate passed in quantity
 		int validatedQuantity = quantity;
@@ -89,24 +122,66 @@ public final class HomeStarFactory {
 		// set quantity
 		itemStack.setAmount(validatedQuantity);
 
-		// set item metadata
+		// return new item stack
+		return itemStack;
+	}
+
+
+	/**
+	 * Discard the template item stack, so the next item created reflects reloaded settings and messages
+	 */
+	public void reload() {
+		templateVersion.incrementAndGet();
+		template.set(null);
+	}
+
+
+	/**
+	 * Get the template item stack, building it if it has not been built since the last reload.
+	 * The template must not be modified or handed out; callers must clone it.
+	 *
+	 * @return the template item stack
+	 */
+	private ItemStack getTemplate() {
+
+		long version = templateVersion.get();
+		Template current = template.get();
+
+		// if template is current, return it
+		if (current != null && current.version() == version) {
+			return current.itemStack();
+		}
+
+		// build template with material and metadata from current settings and messages
+		ItemStack itemStack = getDefaultItemStack();
 		setMetaData(itemStack);
 
-		// return new item stack
+		// store template stamped with the version it was built for; if a reload happened while
+		// building, the stamp is already out of date and the template is rebuilt on next use
+		template.set(new Template(version, itemStack));
+
 		return itemStack;
 	}
 
 
 	/**
-	 * Check if itemStack is a HomeStar item
+	 * Check if itemStack is a HomeStar item.<br>
+	 * Checks are ordered from cheapest to most expensive: items that are not of a HomeStar material or
+	 * have no metadata are rejected without reading any metadata, and the persistent data tag is read
+	 * directly from the item stack where the server supports it, instead of from a copy of its metadata.
 	 *
 	 * @param itemStack the ItemStack to check
 	 * @return {@code true} if itemStack is a HomeStar item, {@code false} if not
 	 */
 	public boolean isItem(final ItemStack itemStack) {
 
-		// if item stack is empty (null or air) return false
-		if (itemStack == null || itemStack.getType().equals(Material.AIR)) {
+		// if item stack is null return false
+		if (itemStack == null) {
+			return false;
+		}
+
+		// if item stack is not of a configured HomeStar material (including air) return false
+		if (!plugin.settings.isItemMaterial(itemStack.getType())) {
 			return false;
 		}
 
@@ -115,6 +190,17 @@ public final class HomeStarFactory {
 			return false;
 		}
 
+		// if server exposes item persistent data directly, check tag without copying item metadata
+		if (GET_ITEM_DATA_CONTAINER != null) {
+			try {
+				Object dataContainer = GET_ITEM_DATA_CONTAINER.invoke(itemStack);
+				return (boolean) DATA_CONTAINER_HAS.invoke(dataContainer, PERSISTENT_KEY, PersistentDataType.BYTE);
+			}
+			catch (Throwable throwable) {
+				// fall through to check tag in copy of item metadata
+			}
+		}
+
 		// if item stack does not have persistent data tag, return false
 		//noinspection ConstantConditions
 		return itemStack.getItemMeta().getPersistentDataContainer().has(PERSISTENT_KEY, PersistentDataType.BYTE);
@@ -128,24 +214,8 @@ public final class HomeStarFactory {
 	 */
 	public ItemStack getDefaultItemStack() {
 
-		// get configured material string
-		String configMaterialString = plugin.getConfig().getString("default-material");
-
-		// if string is null, use default
-		if (configMaterialString == null) {
-			configMaterialString = "NETHER_STAR";
-		}
-
-		// match material to configured string
-		Material configMaterial = Material.matchMaterial(configMaterialString);
-
-		// if no match or unobtainable material, default to nether star
-		if (configMaterial == null || !configMaterial.isItem()) {
-			configMaterial = Material.NETHER_STAR;
-		}
-
-		// return item stack of configured material
-		return new ItemStack(configMaterial, 1);
+		// return item stack of configured material, validated when settings were loaded
+		return new ItemStack(plugin.settings.getItemMaterial(), 1);
 	}
 
 
@@ -192,4 +262,13 @@ public final class HomeStarFactory {
 		itemStack.setItemMeta(itemMeta);
 	}
 
+
+	/**
+	 * Template item stack and the reload version it was built for
+	 *
+	 * @param version the template version
+	 * @param itemStack the template item stack
+	 */
+	private record Template(long version, ItemStack itemStack) { }
+
 }
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.util;
+
+import java.util.UUID;
+
+
+/**
+ * A compact open addressing hash map from UUID keys to primitive long values.<br>
+ * Keys are stored as their two component longs in parallel arrays, so entries require no
+ * per-entry objects and values are never boxed. Collisions are resolved with linear probing,
+ * and removal uses backward shift deletion, so the table never accumulates tombstones.
+ * <p>
+ * The map also supports an incremental sweep that removes entries whose value is at or below
+ * a threshold, for maps that hold expiry or last-seen timestamps.
+ * <p>
+ * This class is not thread safe; callers must synchronize access if it is shared between threads.
+ */
+public final class UuidLongMap {
+
+	private static final int MINIMUM_CAPACITY = 16;
+
+	private long[] mostBits;
+	private long[] leastBits;
+	private long[] values;
+	private boolean[] occupied;
+	private int mask;
+	private int size;
+	private int sweepCursor;
+
+
+	/**
+	 * Class constructor
+	 */
+	public UuidLongMap() {
+		allocate(MINIMUM_CAPACITY);
+	}
+
+
+	/**
+	 * Get the value for a key
+	 *
+	 * @param key the key
+	 * @param defaultValue the value to return if the key is not present
+	 * @return the value for the key, or {@code defaultValue} if the key is not present
+	 */
+	public long get(final UUID key, final long defaultValue) {
+		int slot = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+		return slot < 0 ? defaultValue : values[slot];
+	}
+
+
+	/**
+	 * Check if a key is present in the map
+	 *
+	 * @param key the key
+	 * @return {@code true} if the key is present, {@code false} if not
+	 */
+	public boolean containsKey(final UUID key) {
+		return find(key.getMostSignificantBits(), key.getLeastSignificantBits()) >= 0;
+	}
+
+
+	/**
+	 * Set the value for a key, replacing any existing value
+	 *
+	 * @param key the key
+	 * @param value the value
+	 */
+	public void put(final UUID key, final long value) {
+		put(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+	}
+
+
+	/**
+	 * Set the value for a key given as its two component longs, replacing any existing value
+	 *
+	 * @param most the most significant bits of the key
+	 * @param least the least significant bits of the key
+	 * @param value the value
+	 */
+	public void put(final long most, final long least, final long value) {
+
+		int slot = slotFor(most, least);
+
+		while (occupied[slot]) {
+			if (mostBits[slot] == most && leastBits[slot] == least) {
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		mostBits[slot] = most;
+		leastBits[slot] = least;
+		values[slot] = value;
+		occupied[slot] = true;
+		size++;
+
+		// keep load factor at or below one half
+		if (size * 2 > occupied.length) {
+			resize(occupied.length * 2);
+		}
+	}
+
+
+	/**
+	 * Remove a key from the map
+	 *
+	 * @param key the key
+	 * @return {@code true} if the key was present, {@code false} if not
+	 */
+	public boolean remove(final UUID key) {
+		int slot = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+		if (slot < 0) {
+			return false;
+		}
+		removeSlot(slot);
+		return true;
+	}
+
+
+	/**
+	 * Get the number of entries in the map
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Grow the table, if necessary, so that it can hold a number of entries without resizing
+	 *
+	 * @param expectedSize the number of entries the map is expected to hold
+	 */
+	public void ensureCapacity(final int expectedSize) {
+		int capacity = occupied.length;
+		while (capacity < (1 << 30) && expectedSize * 2L > capacity) {
+			capacity <<= 1;
+		}
+		if (capacity > occupied.length) {
+			resize(capacity);
+		}
+	}
+
+
+	/**
+	 * Remove all entries from the map
+	 */
+	public void clear() {
+		allocate(MINIMUM_CAPACITY);
+	}
+
+
+	/**
+	 * Remove entries whose value is at or below a threshold, examining a limited number of slots.
+	 * Each call resumes where the previous call stopped, so repeated small sweeps eventually
+	 * visit the whole table.
+	 *
+	 * @param threshold entries with a value less than or equal to this are removed
+	 * @param slotCount the maximum number of slots to examine
+	 * @return the number of entries removed
+	 */
+	public int sweep(final long threshold, final int slotCount) {
+
+		int removed = 0;
+		int remaining = Math.min(slotCount, occupied.length);
+		int slot = sweepCursor & mask;
+
+		while (remaining > 0) {
+			if (occupied[slot] && values[slot] <= threshold) {
+				// backward shift may move a later entry into this slot, so examine it again
+				removeSlot(slot);
+				removed++;
+			}
+			else {
+				slot = (slot + 1) & mask;
+				remaining--;
+			}
+		}
+
+		sweepCursor = slot;
+		return removed;
+	}
+
+
+	/**
+	 * Perform an action for each entry in the map
+	 *
+	 * @param action the action to perform
+	 */
+	public void forEach(final EntryConsumer action) {
+		for (int slot = 0; slot < occupied.length; slot++) {
+			if (occupied[slot]) {
+				action.accept(mostBits[slot], leastBits[slot], values[slot]);
+			}
+		}
+	}
+
+
+	/**
+	 * Find the slot holding a key
+	 *
+	 * @return the slot index, or -1 if the key is not present
+	 */
+	private int find(final long most, final long least) {
+
+		int slot = slotFor(most, least);
+
+		while (occupied[slot]) {
+			if (mostBits[slot] == most && leastBits[slot] == least) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		return -1;
+	}
+
+
+	/**
+	 * Empty a slot, shifting back any following entries in the same probe run
+	 *
+	 * @param slot the slot to empty
+	 */
+	private void removeSlot(int slot) {
+
+		size--;
+
+		int next = (slot + 1) & mask;
+
+		while (occupied[next]) {
+
+			int home = slotFor(mostBits[next], leastBits[next]);
+
+			// move entry back if the emptied slot lies cyclically between its home slot and its current slot
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				mostBits[slot] = mostBits[next];
+				leastBits[slot] = leastBits[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+
+			next = (next + 1) & mask;
+		}
+
+		occupied[slot] = false;
+	}
+
+
+	/**
+	 * Get the home slot for a key
+	 */
+	private int slotFor(final long most, final long least) {
+		long hash = most ^ least;
+		hash ^= (hash >>> 32);
+		hash *= 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 32) & mask;
+	}
+
+
+	/**
+	 * Replace the backing arrays with larger arrays and reinsert all entries
+	 *
+	 * @param capacity the new capacity, a power of two
+	 */
+	private void resize(final int capacity) {
+
+		long[] oldMostBits = mostBits;
+		long[] oldLeastBits = leastBits;
+		long[] oldValues = values;
+		boolean[] oldOccupied = occupied;
+
+		allocate(capacity);
+
+		for (int slot = 0; slot < oldOccupied.length; slot++) {
+			if (oldOccupied[slot]) {
+				put(oldMostBits[slot], oldLeastBits[slot], oldValues[slot]);
+			}
+		}
+	}
+
+
+	/**
+	 * Allocate empty backing arrays
+	 *
+	 * @param capacity the capacity, a power of two
+	 */
+	private void allocate(final int capacity) {
+		mostBits = new long[capacity];
+		leastBits = new long[capacity];
+		values = new long[capacity];
+		occupied = new boolean[capacity];
+		mask = capacity - 1;
+		size = 0;
+		sweepCursor = 0;
+	}
+
+
+	/**
+	 * Consumer of map entries, with the key given as its two component longs
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer {
+		void accept(long most, long least, long value);
+	}
+
+}
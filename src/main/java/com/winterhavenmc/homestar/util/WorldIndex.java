@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2022 Tim Savage.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.winterhavenmc.homestar.util;
+
+import com.winterhavenmc.homestar.PluginMain;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+
+/**
+ * Index of server world topology, mapping each world to its associated overworld and that overworld's spawn location.<br>
+ * A nether or end world is associated with the normal world whose name matches the nether or end world name
+ * without its {@code _nether} or {@code _the_end} suffix. If there is no matching normal world and the server
+ * has exactly one normal world, that world is used; otherwise the world is associated with itself.
+ * <p>
+ * The index is built on first use and discarded whenever worlds are loaded or unloaded, a world spawn
+ * location changes, or the plugin configuration is reloaded, so lookups are a single map access.
+ */
+public final class WorldIndex {
+
+	// pattern matching nether and end world name suffixes
+	private static final Pattern DIMENSION_SUFFIX = Pattern.compile("(_nether$|_the_end$)");
+
+	// reference to plugin main class
+	private final PluginMain plugin;
+
+	// map of world uid to overworld spawn location, or null if index must be rebuilt
+	private volatile Map<UUID, Location> overworldSpawns;
+
+
+	/**
+	 * Class constructor
+	 *
+	 * @param plugin reference to plugin main class
+	 */
+	public WorldIndex(final PluginMain plugin) {
+		this.plugin = Objects.requireNonNull(plugin);
+	}
+
+
+	/**
+	 * Get the spawn location of the overworld associated with a world
+	 *
+	 * @param world the world
+	 * @return {@link Optional} wrapped copy of the overworld spawn location, or an empty Optional
+	 * if the world is not in the index or has no spawn location
+	 */
+	public Optional<Location> getOverworldSpawnLocation(final World world) {
+
+		// check for null parameter
+		if (world == null) {
+			return Optional.empty();
+		}
+
+		Map<UUID, Location> index = overworldSpawns;
+
+		// if index has been invalidated, rebuild it now
+		if (index == null) {
+			index = build();
+			overworldSpawns = index;
+		}
+
+		Location location = index.get(world.getUID());
+
+		// return a copy, so the cached location cannot be modified by the caller
+		return location == null ? Optional.empty() : Optional.of(location.clone());
+	}
+
+
+	/**
+	 * Discard the index, so it is rebuilt on next use
+	 */
+	public void invalidate() {
+		overworldSpawns = null;
+	}
+
+
+	/**
+	 * Build the index from the currently loaded worlds
+	 *
+	 * @return an immutable map of world uid to overworld spawn location
+	 */
+	private Map<UUID, Location> build() {
+
+		List<World> worlds = plugin.getServer().getWorlds();
+
+		// map normal environment worlds by name
+		Map<String, World> normalWorlds = new HashMap<>();
+		for (World world : worlds) {
+			if (world.getEnvironment() == World.Environment.NORMAL) {
+				normalWorlds.put(world.getName(), world);
+			}
+		}
+
+		// if exactly one normal world exists, it is the fallback overworld for unmatched worlds
+		World soleNormalWorld = normalWorlds.size() == 1 ? normalWorlds.values().iterator().next() : null;
+
+		// cache spawn location lookups, since many worlds may share an overworld
+		Map<World, Location> spawnLocations = new HashMap<>();
+
+		Map<UUID, Location> index = new HashMap<>();
+		for (World world : worlds) {
+
+			World overworld = normalWorlds.get(DIMENSION_SUFFIX.matcher(world.getName()).replaceFirst(""));
+
+			if (overworld == null) {
+				overworld = (soleNormalWorld != null) ? soleNormalWorld : world;
+			}
+
+			Location spawnLocation = spawnLocations.computeIfAbsent(overworld, plugin.worldManager::getSpawnLocation);
+
+			if (spawnLocation != null) {
+				index.put(world.getUID(), spawnLocation);
+			}
+		}
+
+		return Map.copyOf(index);
+	}
+
+}
@@ -7,19 +7,31 @@ public enum ConfigSetting {
     ENABLED_WORLDS("enabled-worlds", "[]"),
     DISABLED_WORLDS("disabled-worlds", "[disabled_world1, disabled_world2]"),
     ITEM_MATERIAL("item-material", "NETHER_STAR"),
+    PREVIOUS_ITEM_MATERIALS("previous-item-materials", "[NETHER_STAR]"),
     MINIMUM_DISTANCE("minimum-distance", "10"),
     CENTER_ON_BLOCK("center-on-block", "true"),
     TELEPORT_COOLDOWN("teleport-cooldown", "60"),
     TELEPORT_WARMUP("teleport-warmup", "5"),
+    TELEPORT_LIMIT_PER_TICK("teleport-limit-per-tick", "20"),
+    TELEPORT_TICK_BUDGET("teleport-tick-budget", "10"),
+    ASYNC_TELEPORT("async-teleport", "true"),
     SOUND_EFFECTS("sound-effects", "true"),
     PARTICLE_EFFECTS("particle-effects", "true"),
+    PARTICLE_SHAPE("particle-shape", "ender-signal"),
+    PARTICLE_VIEW_DISTANCE("particle-view-distance", "32"),
+    PARTICLE_LIMIT("particle-limit", "200"),
     LEFT_CLICK("left-click","false"),
     SHIFT_CLICK("shift-click", "true"),
+    MESSAGE_DEBOUNCE("message-debounce", "1000"),
+    HOME_CACHE_TTL("home-cache-ttl", "60"),
     REMOVE_FROM_INVENTORY("remove-from-inventory", "on-success"),
     ALLOW_IN_RECIPES("allow-in-recipes", "false"),
     CANCEL_ON_DAMAGE("cancel-on-damage", "false"),
     CANCEL_ON_MOVEMENT("cancel-on-movement", "false"),
+    MOVEMENT_CHECK("movement-check", "block"),
+    MOVEMENT_TOLERANCE("movement-tolerance", "0.5"),
     CANCEL_ON_INTERACTION("cancel-on-interaction", "false"),
+    INTERACTABLE_BLOCKS("interactable-blocks", "[]"),
     MAX_GIVE_AMOUNT("max-give-amount", "-1"),
     FROM_NETHER("from-nether", "true"),
     FROM_END("from-end", "true"),
@@ -3,6 +3,8 @@ package com.winterhavenmc.homestar;
 import be.seeseemelk.mockbukkit.MockBukkit;
 import be.seeseemelk.mockbukkit.ServerMock;
 
+import com.winterhavenmc.homestar.settings.MovementCheck;
+import com.winterhavenmc.homestar.settings.RemoveFromInventory;
 import com.winterhavenmc.homestar.sounds.SoundId;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -62,6 +64,12 @@ public class HomeStarPluginTests {
     @DisplayName("Test plugin main objects.")
     class PluginMainObjectTests {
 
+        @Test
+        @DisplayName("settings not null.")
+        void SettingsNotNull() {
+            Assertions.assertNotNull(plugin.settings);
+        }
+
         @Test
         @DisplayName("language handler not null.")
         void LanguageHandlerNotNull() {
@@ -86,6 +94,12 @@ public class HomeStarPluginTests {
             Assertions.assertNotNull(plugin.worldManager);
         }
 
+        @Test
+        @DisplayName("world index not null.")
+        void WorldIndexNotNull() {
+            Assertions.assertNotNull(plugin.worldIndex);
+        }
+
         @Test
         @DisplayName("command manager not null.")
         void commandManagerNotNull() {
@@ -98,12 +112,42 @@ public class HomeStarPluginTests {
             Assertions.assertNotNull(plugin.playerEventListener);
         }
 
+        @Test
+        @DisplayName("world event listener not null.")
+        void WorldEventListenerNotNull() {
+            Assertions.assertNotNull(plugin.worldEventListener);
+        }
+
+        @Test
+        @DisplayName("block event listener not null.")
+        void BlockEventListenerNotNull() {
+            Assertions.assertNotNull(plugin.blockEventListener);
+        }
+
         @Test
         @DisplayName("spawn star factory not null.")
         void HomeStarFactoryNotNull() {
             Assertions.assertNotNull(plugin.homeStarFactory);
         }
 
+        @Test
+        @DisplayName("metrics registry not null.")
+        void MetricsRegistryNotNull() {
+            Assertions.assertNotNull(plugin.metricsRegistry);
+        }
+
+        @Test
+        @DisplayName("task scheduler not null.")
+        void TaskSchedulerNotNull() {
+            Assertions.assertNotNull(plugin.taskScheduler);
+        }
+
+        @Test
+        @DisplayName("message cache not null.")
+        void MessageCacheNotNull() {
+            Assertions.assertNotNull(plugin.messageCache);
+        }
+
     }
 
     @Nested
@@ -155,6 +199,43 @@ public class HomeStarPluginTests {
 
 
 
+    @Nested
+    @DisplayName("Test settings snapshot.")
+    class SettingsTests {
+
+        @Test
+        @DisplayName("item material matches config.")
+        void ItemMaterialMatchesConfig() {
+            Assertions.assertEquals(Material.NETHER_STAR, plugin.settings.getItemMaterial());
+        }
+
+        @Test
+        @DisplayName("minimum distance squared is precomputed.")
+        void MinimumDistanceSquared() {
+            Assertions.assertEquals(100.0, plugin.settings.getMinimumDistanceSquared());
+        }
+
+        @Test
+        @DisplayName("remove from inventory matches config.")
+        void RemoveFromInventoryMatchesConfig() {
+            Assertions.assertEquals(RemoveFromInventory.ON_SUCCESS, plugin.settings.getRemoveFromInventory());
+        }
+
+        @Test
+        @DisplayName("movement check matches config and tolerance squared is precomputed.")
+        void MovementCheckMatchesConfig() {
+            Assertions.assertEquals(MovementCheck.BLOCK, plugin.settings.getMovementCheck());
+            Assertions.assertEquals(0.25, plugin.settings.getMovementToleranceSquared());
+        }
+
+        @Test
+        @DisplayName("negative max give amount means no limit.")
+        void MaxGiveAmountUnlimited() {
+            Assertions.assertEquals(Integer.MAX_VALUE, plugin.settings.getMaxGiveAmount());
+        }
+    }
+
+
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
     @Nested
     @DisplayName("Test Sounds config.")
@@ -234,6 +315,27 @@ public class HomeStarPluginTests {
         void CreateAndTestValidItem() {
             Assertions.assertTrue(plugin.homeStarFactory.isItem(HomeStarItem));
         }
+
+        @Test
+        @DisplayName("created items are independent copies of the template.")
+        void CreatedItemsAreIndependentCopies() {
+            ItemStack first = plugin.homeStarFactory.create(3);
+            ItemStack second = plugin.homeStarFactory.create(1);
+            Assertions.assertNotSame(first, second);
+            Assertions.assertTrue(first.isSimilar(second));
+            Assertions.assertEquals(3, first.getAmount());
+            Assertions.assertEquals(1, second.getAmount());
+            plugin.homeStarFactory.reload();
+            Assertions.assertTrue(plugin.homeStarFactory.create(1).isSimilar(first));
+        }
+
+        @Test
+        @DisplayName("plain items are not HomeStar items.")
+        void PlainItemsAreNotHomeStarItems() {
+            Assertions.assertFalse(plugin.homeStarFactory.isItem(new ItemStack(Material.NETHER_STAR)));
+            Assertions.assertFalse(plugin.homeStarFactory.isItem(new ItemStack(Material.STONE)));
+            Assertions.assertFalse(plugin.homeStarFactory.isItem(null));
+        }
     }
 
 
@@ -278,6 +380,11 @@ public class HomeStarPluginTests {
         server.dispatchCommand(server.getConsoleSender(), "/HomeStar give testy");
     }
 
+    @Test
+    void MetricsCommandTest() {
+        server.dispatchCommand(server.getConsoleSender(), "/HomeStar metrics");
+    }
+
     @Test
     void ReloadCommandTest() {
         server.dispatchCommand(server.getConsoleSender(), "/HomeStar reload");
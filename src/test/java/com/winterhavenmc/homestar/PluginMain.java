@@ -1,11 +1,19 @@
 package com.winterhavenmc.homestar;
 
 import com.winterhavenmc.homestar.commands.CommandManager;
+import com.winterhavenmc.homestar.listeners.BlockEventListener;
 import com.winterhavenmc.homestar.listeners.PlayerEventListener;
+import com.winterhavenmc.homestar.listeners.WorldEventListener;
+import com.winterhavenmc.homestar.metrics.MetricsRegistry;
 import com.winterhavenmc.homestar.messages.Macro;
+import com.winterhavenmc.homestar.messages.FeedbackDebouncer;
+import com.winterhavenmc.homestar.messages.MessageCache;
 import com.winterhavenmc.homestar.messages.MessageId;
+import com.winterhavenmc.homestar.scheduler.TaskScheduler;
+import com.winterhavenmc.homestar.settings.Settings;
 import com.winterhavenmc.homestar.teleport.TeleportHandler;
 import com.winterhavenmc.homestar.util.HomeStarFactory;
+import com.winterhavenmc.homestar.util.WorldIndex;
 import com.winterhavenmc.util.messagebuilder.MessageBuilder;
 import com.winterhavenmc.util.soundconfig.SoundConfiguration;
 import com.winterhavenmc.util.soundconfig.YamlSoundConfiguration;
@@ -25,13 +33,21 @@ import java.io.File;
  */
 public final class PluginMain extends JavaPlugin {
 
+	public TaskScheduler taskScheduler;
+	public volatile Settings settings;
 	public MessageBuilder<MessageId, Macro> messageBuilder;
+	public MessageCache messageCache;
+	public FeedbackDebouncer feedbackDebouncer;
 	public SoundConfiguration soundConfig;
 	public TeleportHandler teleportHandler;
 	public WorldManager worldManager;
+	public WorldIndex worldIndex;
 	public CommandManager commandManager;
 	public PlayerEventListener playerEventListener;
+	public WorldEventListener worldEventListener;
+	public BlockEventListener blockEventListener;
 	public HomeStarFactory homeStarFactory;
+	public MetricsRegistry metricsRegistry;
 
 
 	/**
@@ -61,9 +77,24 @@ public final class PluginMain extends JavaPlugin {
 		// install default configuration file if not already present
 		saveDefaultConfig();
 
+		// instantiate task scheduler for classic or region threaded server
+		taskScheduler = TaskScheduler.create(this);
+
+		// instantiate settings snapshot from configuration
+		settings = new Settings(getConfig(), getLogger());
+
+		// instantiate teleport metrics registry
+		metricsRegistry = new MetricsRegistry();
+
 		// instantiate message builder
 		messageBuilder = new MessageBuilder<>(this);
 
+		// instantiate message string cache
+		messageCache = new MessageCache(this);
+
+		// instantiate per-player feedback debouncer
+		feedbackDebouncer = new FeedbackDebouncer(this);
+
 		// instantiate sound configuration
 		soundConfig = new YamlSoundConfiguration(this);
 
@@ -73,13 +104,32 @@ public final class PluginMain extends JavaPlugin {
 		// instantiate world manager
 		worldManager = new WorldManager(this);
 
+		// instantiate world index
+		worldIndex = new WorldIndex(this);
+
 		// instantiate command manager
 		commandManager = new CommandManager(this);
 
 		// instantiate player event listener
 		playerEventListener = new PlayerEventListener(this);
+
+		// instantiate world event listener
+		worldEventListener = new WorldEventListener(this);
+
+		// instantiate block event listener
+		blockEventListener = new BlockEventListener(this);
 		
 		homeStarFactory = new HomeStarFactory(this);
 	}
 
+
+	@Override
+	public void onDisable() {
+
+		// finish pending cooldown journal writes
+		if (teleportHandler != null) {
+			teleportHandler.shutdown();
+		}
+	}
+
 }
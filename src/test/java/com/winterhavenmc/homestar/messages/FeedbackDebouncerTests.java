@@ -0,0 +1,80 @@
+package com.winterhavenmc.homestar.messages;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.settings.Settings;
+import org.junit.jupiter.api.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FeedbackDebouncerTests {
+
+    private ServerMock server;
+    private PluginMain plugin;
+
+    @BeforeAll
+    public void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(PluginMain.class);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        server.getScheduler().cancelTasks(plugin);
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("repeated feedback within window is suppressed.")
+    void RepeatedFeedbackSuppressed() {
+        PlayerMock player = server.addPlayer();
+        FeedbackDebouncer debouncer = new FeedbackDebouncer(plugin);
+
+        Assertions.assertTrue(debouncer.tryAcquire(player, MessageId.TELEPORT_COOLDOWN));
+        Assertions.assertFalse(debouncer.tryAcquire(player, MessageId.TELEPORT_COOLDOWN));
+    }
+
+    @Test
+    @DisplayName("feedback is debounced per message and per player.")
+    void FeedbackDebouncedPerMessageAndPlayer() {
+        PlayerMock player = server.addPlayer();
+        PlayerMock otherPlayer = server.addPlayer();
+        FeedbackDebouncer debouncer = new FeedbackDebouncer(plugin);
+
+        Assertions.assertTrue(debouncer.tryAcquire(player, MessageId.TELEPORT_COOLDOWN));
+        Assertions.assertTrue(debouncer.tryAcquire(player, MessageId.PERMISSION_DENIED_USE));
+        Assertions.assertTrue(debouncer.tryAcquire(otherPlayer, MessageId.TELEPORT_COOLDOWN));
+    }
+
+    @Test
+    @DisplayName("removed player may receive feedback again.")
+    void RemovedPlayerReceivesFeedback() {
+        PlayerMock player = server.addPlayer();
+        FeedbackDebouncer debouncer = new FeedbackDebouncer(plugin);
+
+        Assertions.assertTrue(debouncer.tryAcquire(player, MessageId.TELEPORT_COOLDOWN));
+        debouncer.remove(player);
+        Assertions.assertTrue(debouncer.tryAcquire(player, MessageId.TELEPORT_COOLDOWN));
+    }
+
+    @Test
+    @DisplayName("zero window allows all feedback.")
+    void ZeroWindowAllowsAllFeedback() {
+        PlayerMock player = server.addPlayer();
+        FeedbackDebouncer debouncer = new FeedbackDebouncer(plugin);
+        Settings originalSettings = plugin.settings;
+
+        try {
+            plugin.getConfig().set("message-debounce", 0);
+            plugin.settings = new Settings(plugin.getConfig(), plugin.getLogger());
+
+            Assertions.assertTrue(debouncer.tryAcquire(player, MessageId.TELEPORT_COOLDOWN));
+            Assertions.assertTrue(debouncer.tryAcquire(player, MessageId.TELEPORT_COOLDOWN));
+        }
+        finally {
+            plugin.getConfig().set("message-debounce", 1000);
+            plugin.settings = originalSettings;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.winterhavenmc.homestar.metrics;
+
+import org.junit.jupiter.api.*;
+
+public class HistogramTests {
+
+    @Test
+    @DisplayName("empty histogram reports zero.")
+    void EmptyHistogram() {
+        Histogram histogram = new Histogram();
+        Assertions.assertEquals(0L, histogram.getCount());
+        Assertions.assertEquals(0L, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(0L, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("small values are counted exactly.")
+    void SmallValuesExact() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+        Assertions.assertEquals(20L, histogram.getCount());
+        Assertions.assertEquals(10L, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(20L, histogram.getValueAtPercentile(100));
+        Assertions.assertEquals(10.5, histogram.getMean(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("large value percentiles are within bucket precision.")
+    void LargeValuesWithinPrecision() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000L);
+        }
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        Assertions.assertEquals(50_000_000L, p50, 50_000_000L * 0.04);
+        Assertions.assertEquals(99_000_000L, p99, 99_000_000L * 0.04);
+        Assertions.assertEquals(100_000_000L, histogram.getMax());
+        Assertions.assertTrue(histogram.getValueAtPercentile(100) <= histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("bucket bounds cover every value.")
+    void BucketBounds() {
+        long[] values = { 0L, 31L, 32L, 33L, 1000L, 123_456_789L, Long.MAX_VALUE };
+        for (long value : values) {
+            int index = Histogram.bucketIndex(value);
+            Assertions.assertTrue(Histogram.bucketHighestValue(index) >= value);
+            if (index > 0) {
+                Assertions.assertTrue(Histogram.bucketHighestValue(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("reset discards recorded values.")
+    void Reset() {
+        Histogram histogram = new Histogram();
+        histogram.record(500L);
+        histogram.reset();
+        Assertions.assertEquals(0L, histogram.getCount());
+        Assertions.assertEquals(0L, histogram.getMax());
+        Assertions.assertEquals(0L, histogram.getValueAtPercentile(99));
+    }
+}
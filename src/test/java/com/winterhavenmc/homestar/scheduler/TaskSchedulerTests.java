@@ -0,0 +1,62 @@
+package com.winterhavenmc.homestar.scheduler;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.winterhavenmc.homestar.PluginMain;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TaskSchedulerTests {
+
+    private ServerMock server;
+    private PluginMain plugin;
+
+    @BeforeAll
+    public void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(PluginMain.class);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        server.getScheduler().cancelTasks(plugin);
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("classic server uses Bukkit task scheduler.")
+    void ClassicServerUsesBukkitScheduler() {
+        Assertions.assertInstanceOf(BukkitTaskScheduler.class, plugin.taskScheduler);
+        Assertions.assertFalse(plugin.taskScheduler.isRegionThreaded());
+    }
+
+    @Test
+    @DisplayName("entity task runs immediately on main thread.")
+    void EntityTaskRunsImmediately() {
+        PlayerMock player = server.addPlayer();
+        AtomicInteger runCount = new AtomicInteger();
+
+        plugin.taskScheduler.runForEntity(player, runCount::incrementAndGet);
+
+        Assertions.assertEquals(1, runCount.get());
+    }
+
+    @Test
+    @DisplayName("delayed task runs after delay, and not after cancel.")
+    void DelayedTaskRunsAfterDelay() {
+        AtomicInteger runCount = new AtomicInteger();
+
+        plugin.taskScheduler.runLater(runCount::incrementAndGet, 2L);
+        TaskScheduler.Task cancelledTask = plugin.taskScheduler.runLater(runCount::incrementAndGet, 2L);
+        cancelledTask.cancel();
+
+        server.getScheduler().performOneTick();
+        Assertions.assertEquals(0, runCount.get());
+
+        server.getScheduler().performTicks(2);
+        Assertions.assertEquals(1, runCount.get());
+    }
+}
@@ -0,0 +1,64 @@
+package com.winterhavenmc.homestar.teleport;
+
+import com.winterhavenmc.homestar.util.UuidLongMap;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CooldownJournalTests {
+
+    private static final long EXPIRE_TIME = Long.MAX_VALUE - 1;
+
+    private final Logger logger = Logger.getLogger(CooldownJournalTests.class.getName());
+
+    @Test
+    @DisplayName("records appended after a truncated record are loaded.")
+    void AppendAfterTruncatedRecord() throws IOException {
+        Path journalPath = Files.createTempDirectory("homestar-journal").resolve("cooldowns.dat");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        CooldownJournal journal = new CooldownJournal(journalPath, logger);
+        journal.append(first, EXPIRE_TIME);
+        journal.close();
+
+        // simulate a write interrupted part way through a record
+        Files.write(journalPath, new byte[] { 1, 2, 3, 4, 5 }, StandardOpenOption.APPEND);
+
+        journal = new CooldownJournal(journalPath, logger);
+        journal.load(new UuidLongMap(), 0L);
+        journal.append(second, EXPIRE_TIME);
+        journal.close();
+
+        UuidLongMap map = new UuidLongMap();
+        new CooldownJournal(journalPath, logger).load(map, 0L);
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(EXPIRE_TIME, map.get(first, 0L));
+        Assertions.assertEquals(EXPIRE_TIME, map.get(second, 0L));
+    }
+
+    @Test
+    @DisplayName("unrecognized journal is moved aside and replaced.")
+    void UnrecognizedJournalReplaced() throws IOException {
+        Path journalPath = Files.createTempDirectory("homestar-journal").resolve("cooldowns.dat");
+        Files.write(journalPath, new byte[] { 'n', 'o', 't', ' ', 'a', ' ', 'j', 'o', 'u', 'r', 'n', 'a', 'l' });
+        UUID playerUid = UUID.randomUUID();
+
+        CooldownJournal journal = new CooldownJournal(journalPath, logger);
+        journal.load(new UuidLongMap(), 0L);
+        journal.append(playerUid, EXPIRE_TIME);
+        journal.close();
+
+        Assertions.assertTrue(Files.exists(journalPath.resolveSibling("cooldowns.dat.bad")));
+
+        UuidLongMap map = new UuidLongMap();
+        new CooldownJournal(journalPath, logger).load(map, 0L);
+        Assertions.assertEquals(EXPIRE_TIME, map.get(playerUid, 0L));
+    }
+}
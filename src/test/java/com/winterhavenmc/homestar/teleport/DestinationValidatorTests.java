@@ -0,0 +1,193 @@
+package com.winterhavenmc.homestar.teleport;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import com.winterhavenmc.homestar.PluginMain;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DestinationValidatorTests {
+
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 320;
+
+    private ServerMock server;
+    private PluginMain plugin;
+
+    @BeforeAll
+    public void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(PluginMain.class);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("safe destination is unchanged.")
+    void SafeDestinationUnchanged() {
+        FakeChunk chunk = new FakeChunk().fill(4, 63, 4, Material.STONE);
+        Location destination = new Location(null, 4.5, 64, 4.5);
+
+        Assertions.assertEquals(destination, findSafeLocation(chunk, destination));
+    }
+
+    @Test
+    @DisplayName("destination inside blocks moves up to nearest open space.")
+    void BuriedDestinationMovesUp() {
+        FakeChunk chunk = new FakeChunk()
+                .fill(4, 63, 4, Material.STONE)
+                .fill(4, 64, 4, Material.STONE)
+                .fill(4, 65, 4, Material.STONE);
+        Location destination = new Location(null, 4.5, 64, 4.5);
+
+        Location safe = findSafeLocation(chunk, destination);
+
+        Assertions.assertEquals(66, safe.getY());
+        Assertions.assertEquals(4.5, safe.getX());
+        Assertions.assertEquals(4.5, safe.getZ());
+    }
+
+    @Test
+    @DisplayName("destination over lava moves to a safe neighbouring column.")
+    void LavaDestinationMovesAside() {
+        FakeChunk chunk = new FakeChunk()
+                .fill(4, 63, 4, Material.LAVA)
+                .fill(5, 63, 4, Material.STONE);
+        Location destination = new Location(null, 4.5, 64, 4.5);
+
+        Location safe = findSafeLocation(chunk, destination);
+
+        Assertions.assertEquals(5, safe.getBlockX());
+        Assertions.assertEquals(64, safe.getBlockY());
+    }
+
+    @Test
+    @DisplayName("destination with no safe spot nearby is unchanged.")
+    void NoSafeSpotUnchanged() {
+        FakeChunk chunk = new FakeChunk();
+        Location destination = new Location(null, 4.5, 64, 4.5);
+
+        Assertions.assertEquals(destination, findSafeLocation(chunk, destination));
+    }
+
+    @Test
+    @DisplayName("destination in an unloaded chunk is validated once its chunk has loaded.")
+    void UnloadedDestinationValidatedAfterLoad() throws Exception {
+        FakeChunk chunk = new FakeChunk()
+                .fill(4, 63, 4, Material.STONE)
+                .fill(4, 64, 4, Material.STONE)
+                .fill(4, 65, 4, Material.STONE);
+        FakeWorld world = new FakeWorld(chunk);
+        Location destination = new Location(world.world(), 4.5, 64, 4.5);
+
+        CompletableFuture<Void> chunkLoaded = new CompletableFuture<>();
+        CompletableFuture<Location> safe = new DestinationValidator(plugin).validate(destination, chunkLoaded);
+        Assertions.assertFalse(safe.isDone(), "destination scanned before its chunk loaded");
+
+        world.loaded = true;
+        chunkLoaded.complete(null);
+        server.getScheduler().performOneTick();
+
+        Assertions.assertEquals(66, safe.get(5, TimeUnit.SECONDS).getY());
+    }
+
+    private Location findSafeLocation(final FakeChunk chunk, final Location destination) {
+        return DestinationValidator.findSafeLocation(chunk.snapshot(), destination, MIN_Y, MAX_Y);
+    }
+
+    /**
+     * Chunk of air with individually set blocks
+     */
+    private static final class FakeChunk {
+
+        private final Map<String, Material> blocks = new HashMap<>();
+
+        FakeChunk fill(final int x, final int y, final int z, final Material material) {
+            blocks.put(x + "," + y + "," + z, material);
+            return this;
+        }
+
+        ChunkSnapshot snapshot() {
+            return (ChunkSnapshot) Proxy.newProxyInstance(ChunkSnapshot.class.getClassLoader(),
+                    new Class<?>[] { ChunkSnapshot.class },
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("getBlockType")) {
+                            return blocks.getOrDefault(args[0] + "," + args[1] + "," + args[2], Material.AIR);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+
+    /**
+     * World containing a single chunk, which is loaded when its loaded flag is set
+     */
+    private static final class FakeWorld {
+
+        private final FakeChunk chunk;
+        private final World world;
+        private volatile boolean loaded;
+
+        FakeWorld(final FakeChunk chunk) {
+            this.chunk = chunk;
+            this.world = createWorld();
+        }
+
+        // locations hold their world weakly, so the world is kept here
+        World world() {
+            return world;
+        }
+
+        private World createWorld() {
+            return (World) Proxy.newProxyInstance(World.class.getClassLoader(),
+                    new Class<?>[] { World.class },
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("isChunkLoaded")) {
+                            return loaded;
+                        }
+                        if (name.equals("getChunkAt")) {
+                            return chunk();
+                        }
+                        if (name.equals("getMinHeight")) {
+                            return MIN_Y;
+                        }
+                        if (name.equals("getMaxHeight")) {
+                            return MAX_Y;
+                        }
+                        if (name.equals("equals")) {
+                            return proxy == args[0];
+                        }
+                        if (name.equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        throw new UnsupportedOperationException(name);
+                    });
+        }
+
+        private Chunk chunk() {
+            return (Chunk) Proxy.newProxyInstance(Chunk.class.getClassLoader(),
+                    new Class<?>[] { Chunk.class },
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("getChunkSnapshot")) {
+                            return chunk.snapshot();
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
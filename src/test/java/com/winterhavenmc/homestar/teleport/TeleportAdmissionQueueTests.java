@@ -0,0 +1,68 @@
+package com.winterhavenmc.homestar.teleport;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.settings.Settings;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TeleportAdmissionQueueTests {
+
+    private ServerMock server;
+    private PluginMain plugin;
+
+    @BeforeAll
+    public void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(PluginMain.class);
+
+        plugin.getConfig().set("teleport-warmup", 1);
+        plugin.getConfig().set("teleport-cooldown", 0);
+        plugin.getConfig().set("teleport-limit-per-tick", 1);
+        plugin.getConfig().set("teleport-tick-budget", 0);
+        plugin.getConfig().set("remove-from-inventory", "never");
+        plugin.settings = new Settings(plugin.getConfig(), plugin.getLogger());
+    }
+
+    @AfterAll
+    public void tearDown() {
+        server.getScheduler().cancelTasks(plugin);
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("teleports over the per tick limit are deferred to following ticks.")
+    void TeleportsOverLimitDeferred() {
+
+        List<PlayerMock> players = List.of(addPlayer(), addPlayer(), addPlayer());
+        players.forEach(plugin.teleportHandler::initiateTeleport);
+        Assertions.assertEquals(3, countWarmingUp(players));
+
+        // run ticks until the first teleport is executed
+        for (int tick = 0; tick < 100 && countWarmingUp(players) == 3; tick++) {
+            server.getScheduler().performOneTick();
+        }
+        Assertions.assertEquals(2, countWarmingUp(players), "more than one teleport executed in one tick");
+
+        server.getScheduler().performOneTick();
+        Assertions.assertEquals(1, countWarmingUp(players));
+
+        server.getScheduler().performOneTick();
+        Assertions.assertEquals(0, countWarmingUp(players));
+    }
+
+    private PlayerMock addPlayer() {
+        PlayerMock player = server.addPlayer();
+        player.setBedSpawnLocation(player.getLocation().add(1000, 0, 1000), true);
+        player.getInventory().setItemInMainHand(plugin.homeStarFactory.create(1));
+        return player;
+    }
+
+    private long countWarmingUp(final List<PlayerMock> players) {
+        return players.stream().filter(plugin.teleportHandler::isWarmingUp).count();
+    }
+}
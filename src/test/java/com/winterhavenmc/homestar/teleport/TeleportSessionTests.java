@@ -0,0 +1,148 @@
+package com.winterhavenmc.homestar.teleport;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.listeners.WarmupListenerGate;
+import org.junit.jupiter.api.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TeleportSessionTests {
+
+    private ServerMock server;
+    private PluginMain plugin;
+    private WarmupScheduler warmupScheduler;
+    private WarmupMap warmupMap;
+
+    @BeforeAll
+    public void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(PluginMain.class);
+        warmupScheduler = new WarmupScheduler(plugin);
+        warmupMap = new WarmupMap(new WarmupListenerGate(plugin));
+    }
+
+    @AfterAll
+    public void tearDown() {
+        server.getScheduler().cancelTasks(plugin);
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("new session is idle, or cooling down if a cooldown has not expired.")
+    void NewSessionState() {
+        Assertions.assertEquals(TeleportSession.State.IDLE, createSession(0L).getState());
+        Assertions.assertEquals(TeleportSession.State.IDLE,
+                createSession(System.currentTimeMillis() - 1000L).getState());
+        Assertions.assertEquals(TeleportSession.State.COOLING,
+                createSession(System.currentTimeMillis() + 60_000L).getState());
+    }
+
+    @Test
+    @DisplayName("warmup may only start when idle.")
+    void WarmupStartsOnlyWhenIdle() {
+        TeleportSession session = createSession(0L);
+        DelayedTeleportTask task = createTask();
+
+        Assertions.assertTrue(session.startWarmup(task));
+        Assertions.assertEquals(TeleportSession.State.WARMING, session.getState());
+        Assertions.assertSame(task, session.getWarmupTask().orElseThrow());
+        Assertions.assertSame(task, warmupMap.getTeleportTask(session.getPlayer()).orElseThrow());
+        Assertions.assertFalse(session.startWarmup(createTask()));
+
+        Assertions.assertFalse(createSession(System.currentTimeMillis() + 60_000L).startWarmup(createTask()));
+    }
+
+    @Test
+    @DisplayName("cancelled warmup does not begin teleport.")
+    void CancelledWarmupDoesNotTeleport() {
+        TeleportSession session = createSession(0L);
+        DelayedTeleportTask task = createTask();
+        session.startWarmup(task);
+
+        Assertions.assertSame(task, session.cancelWarmup().orElseThrow());
+        Assertions.assertEquals(TeleportSession.State.IDLE, session.getState());
+        Assertions.assertTrue(warmupMap.getTeleportTask(session.getPlayer()).isEmpty());
+        Assertions.assertFalse(session.beginTeleport(task));
+        Assertions.assertTrue(session.cancelWarmup().isEmpty());
+    }
+
+    @Test
+    @DisplayName("teleport begins only for the current warmup task, and cannot then be cancelled.")
+    void TeleportBeginsForCurrentTask() {
+        TeleportSession session = createSession(0L);
+        DelayedTeleportTask task = createTask();
+        session.startWarmup(task);
+
+        Assertions.assertFalse(session.beginTeleport(createTask()));
+        Assertions.assertTrue(session.beginTeleport(task));
+        Assertions.assertEquals(TeleportSession.State.TELEPORTING, session.getState());
+        Assertions.assertTrue(warmupMap.getTeleportTask(session.getPlayer()).isEmpty());
+        Assertions.assertTrue(session.cancelWarmup().isEmpty());
+        Assertions.assertTrue(session.getWarmupTask().isEmpty());
+    }
+
+    @Test
+    @DisplayName("finished teleport cools down until cooldown expires.")
+    void FinishedTeleportCoolsDown() {
+        TeleportSession session = createSession(0L);
+        DelayedTeleportTask task = createTask();
+        session.startWarmup(task);
+        session.beginTeleport(task);
+
+        session.finishTeleport(System.currentTimeMillis() + 60_000L);
+        Assertions.assertEquals(TeleportSession.State.COOLING, session.getState());
+        Assertions.assertTrue(session.getCooldownTimeRemaining() > 0);
+
+        session.finishTeleport(0L);
+        Assertions.assertEquals(TeleportSession.State.IDLE, session.getState());
+        Assertions.assertEquals(0L, session.getCooldownTimeRemaining());
+    }
+
+    @Test
+    @DisplayName("interaction is recent only within the tick window after it was recorded.")
+    void InteractionWithinWindow() {
+        TeleportSession session = createSession(0L);
+        Assertions.assertFalse(session.isInteractionWithin(2L));
+
+        session.recordInteraction();
+        Assertions.assertTrue(session.isInteractionWithin(0L));
+
+        server.getScheduler().performOneTick();
+        Assertions.assertFalse(session.isInteractionWithin(0L));
+        Assertions.assertTrue(session.isInteractionWithin(2L));
+
+        server.getScheduler().performTicks(2);
+        Assertions.assertFalse(session.isInteractionWithin(2L));
+    }
+
+    @Test
+    @DisplayName("warmup start counts as a handled interaction.")
+    void WarmupStartIsInteraction() {
+        TeleportSession session = createSession(0L);
+        session.startWarmup(createTask());
+        Assertions.assertTrue(session.isInteractionWithin(0L));
+        session.cancelWarmup();
+    }
+
+    @Test
+    @DisplayName("player session is closed on quit.")
+    void SessionClosedOnQuit() {
+        PlayerMock player = server.addPlayer();
+        int sessionCount = plugin.teleportHandler.getSessionCount();
+
+        player.disconnect();
+        Assertions.assertEquals(sessionCount - 1, plugin.teleportHandler.getSessionCount());
+    }
+
+    private TeleportSession createSession(final long cooldownExpireTime) {
+        return new TeleportSession(server.addPlayer(), cooldownExpireTime, warmupMap, warmupScheduler);
+    }
+
+    private DelayedTeleportTask createTask() {
+        PlayerMock player = server.addPlayer();
+        return new DelayedTeleportTask(plugin, warmupScheduler, player, player.getLocation().add(1000, 0, 1000),
+                "Home", plugin.homeStarFactory.create(1));
+    }
+}
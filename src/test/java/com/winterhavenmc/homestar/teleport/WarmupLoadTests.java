@@ -0,0 +1,178 @@
+package com.winterhavenmc.homestar.teleport;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.winterhavenmc.homestar.PluginMain;
+import com.winterhavenmc.homestar.metrics.Histogram;
+import com.winterhavenmc.homestar.settings.Settings;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Load test simulating a large population of players using HomeStars, moving, taking damage and quitting
+ * in randomized patterns over many ticks. Excluded from the default build; run with {@code mvn -P load-test test}.
+ * Population, duration, random seed and tick time budget can be set with the system properties
+ * {@code homestar.load.players}, {@code homestar.load.ticks}, {@code homestar.load.seed}
+ * and {@code homestar.load.tickBudgetMillis}.
+ */
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class WarmupLoadTests {
+
+    private static final int PLAYER_COUNT = Integer.getInteger("homestar.load.players", 2000);
+    private static final int TICK_COUNT = Integer.getInteger("homestar.load.ticks", 600);
+    private static final long SEED = Long.getLong("homestar.load.seed", 42L);
+    private static final long TICK_BUDGET_MILLIS = Long.getLong("homestar.load.tickBudgetMillis", 50L);
+
+    // per tick probabilities of each player action
+    private static final double USE_CHANCE = 0.02;
+    private static final double MOVE_CHANCE = 0.01;
+    private static final double DAMAGE_CHANCE = 0.005;
+    private static final double QUIT_CHANCE = 0.0005;
+
+    // warmup in seconds; teleports still pending this many ticks after the run must have completed
+    private static final int WARMUP_SECONDS = 2;
+    private static final int DRAIN_TICKS = WARMUP_SECONDS * 20 + 20;
+
+    // the plugin may own a few repeating Bukkit tasks, but never one per warmup
+    private static final int PLUGIN_TASK_BUDGET = 4;
+
+    private ServerMock server;
+    private PluginMain plugin;
+    private final Random random = new Random(SEED);
+    private final List<PlayerMock> players = new ArrayList<>();
+    private int joinedCount;
+
+    @BeforeAll
+    public void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(PluginMain.class);
+
+        plugin.getConfig().set("teleport-warmup", WARMUP_SECONDS);
+        plugin.getConfig().set("teleport-cooldown", 5);
+        plugin.getConfig().set("shift-click", false);
+        plugin.getConfig().set("cancel-on-movement", true);
+        plugin.getConfig().set("cancel-on-damage", true);
+        plugin.getConfig().set("remove-from-inventory", "never");
+        plugin.getConfig().set("sound-effects", false);
+        plugin.getConfig().set("particle-effects", false);
+        plugin.getConfig().set("log-use", false);
+        plugin.settings = new Settings(plugin.getConfig(), plugin.getLogger());
+        plugin.teleportHandler.reload();
+
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            players.add(joinPlayer());
+        }
+    }
+
+    @AfterAll
+    public void tearDown() {
+        server.getScheduler().cancelTasks(plugin);
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("thousands of concurrent warmups stay within tick, task and map budgets.")
+    void ConcurrentWarmupsWithinBudget() {
+
+        Histogram tickNanos = new Histogram();
+        int maxWarmups = 0;
+
+        for (int tick = 0; tick < TICK_COUNT; tick++) {
+
+            long startTime = System.nanoTime();
+            simulatePlayers();
+            server.getScheduler().performOneTick();
+            tickNanos.record(System.nanoTime() - startTime);
+
+            int warmups = plugin.teleportHandler.getWarmupCount();
+            maxWarmups = Math.max(maxWarmups, warmups);
+
+            Assertions.assertTrue(warmups <= players.size(),
+                    "warmup map has more entries than online players: " + warmups);
+            Assertions.assertTrue(plugin.teleportHandler.getCooldownCount() <= joinedCount,
+                    "cooldown map has more entries than players who have joined");
+            Assertions.assertTrue(countPluginTasks() <= PLUGIN_TASK_BUDGET,
+                    "plugin has more Bukkit tasks than budgeted: " + countPluginTasks());
+        }
+
+        // let pending warmups complete, and check none are left behind
+        server.getScheduler().performTicks(DRAIN_TICKS);
+        Assertions.assertEquals(0, plugin.teleportHandler.getWarmupCount(), "warmups left after drain");
+
+        String summary = String.format("%d players, %d ticks, peak %d warmups, %d started, %d completed; "
+                        + "tick p50 %.3fms, p99 %.3fms, max %.3fms",
+                PLAYER_COUNT, TICK_COUNT, maxWarmups,
+                plugin.metricsRegistry.getStartedCount(), plugin.metricsRegistry.getCompletedCount(),
+                tickNanos.getValueAtPercentile(50) / 1e6,
+                tickNanos.getValueAtPercentile(99) / 1e6,
+                tickNanos.getMax() / 1e6);
+
+        Assertions.assertTrue(plugin.metricsRegistry.getStartedCount() > 0, "no teleports started: " + summary);
+        Assertions.assertTrue(plugin.metricsRegistry.getCompletedCount() > 0, "no teleports completed: " + summary);
+        Assertions.assertTrue(tickNanos.getValueAtPercentile(99) <= TICK_BUDGET_MILLIS * 1_000_000L,
+                "p99 tick time over budget of " + TICK_BUDGET_MILLIS + "ms: " + summary);
+    }
+
+    /**
+     * Perform one tick of randomized player actions
+     */
+    private void simulatePlayers() {
+        for (int i = 0; i < players.size(); i++) {
+
+            PlayerMock player = players.get(i);
+            double roll = random.nextDouble();
+
+            if (roll < QUIT_CHANCE) {
+                player.disconnect();
+                players.set(i, joinPlayer());
+            }
+            else if (plugin.teleportHandler.isWarmingUp(player)) {
+                if (roll < QUIT_CHANCE + MOVE_CHANCE) {
+                    player.simulatePlayerMove(player.getLocation().add(2, 0, 0));
+                }
+                else if (roll < QUIT_CHANCE + MOVE_CHANCE + DAMAGE_CHANCE) {
+                    player.damage(1.0);
+                    player.setHealth(20.0);
+                }
+            }
+            else if (roll < QUIT_CHANCE + USE_CHANCE) {
+                ItemStack item = player.getInventory().getItemInMainHand();
+                server.getPluginManager().callEvent(new PlayerInteractEvent(player,
+                        Action.RIGHT_CLICK_AIR, item, null, null, EquipmentSlot.HAND));
+            }
+        }
+    }
+
+    /**
+     * Add a player holding HomeStars, with a bed spawn far from their location
+     *
+     * @return the new player
+     */
+    private PlayerMock joinPlayer() {
+        PlayerMock player = server.addPlayer();
+        player.setBedSpawnLocation(player.getLocation().add(1000 + random.nextInt(1000), 0, 1000), true);
+        player.getInventory().setItemInMainHand(plugin.homeStarFactory.create(64));
+        joinedCount++;
+        return player;
+    }
+
+    /**
+     * Count Bukkit scheduler tasks owned by the plugin
+     *
+     * @return the number of pending Bukkit tasks owned by the plugin
+     */
+    private long countPluginTasks() {
+        return server.getScheduler().getPendingTasks().stream()
+                .filter(task -> task.getOwner() == plugin)
+                .count();
+    }
+}
@@ -0,0 +1,61 @@
+package com.winterhavenmc.homestar.util;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class UuidLongMapTests {
+
+    @Test
+    @DisplayName("get returns default value for missing key.")
+    void GetMissingKey() {
+        UuidLongMap map = new UuidLongMap();
+        Assertions.assertEquals(-1L, map.get(UUID.randomUUID(), -1L));
+    }
+
+    @Test
+    @DisplayName("put replaces existing value.")
+    void PutReplacesValue() {
+        UuidLongMap map = new UuidLongMap();
+        UUID key = UUID.randomUUID();
+        map.put(key, 1L);
+        map.put(key, 2L);
+        Assertions.assertEquals(2L, map.get(key, 0L));
+        Assertions.assertEquals(1, map.size());
+    }
+
+    @Test
+    @DisplayName("entries survive resize and removal.")
+    void ResizeAndRemove() {
+        UuidLongMap map = new UuidLongMap();
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            UUID key = UUID.randomUUID();
+            keys.add(key);
+            map.put(key, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            Assertions.assertTrue(map.remove(keys.get(i)));
+        }
+        Assertions.assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i % 2 == 0 ? -1L : i, map.get(keys.get(i), -1L));
+        }
+    }
+
+    @Test
+    @DisplayName("sweep removes only entries at or below threshold.")
+    void SweepRemovesExpired() {
+        UuidLongMap map = new UuidLongMap();
+        for (int i = 0; i < 10000; i++) {
+            map.put(UUID.randomUUID(), i);
+        }
+        int removed = map.sweep(4999L, Integer.MAX_VALUE);
+        Assertions.assertEquals(5000, removed);
+        Assertions.assertEquals(5000, map.size());
+        map.forEach((most, least, value) -> Assertions.assertTrue(value > 4999L));
+    }
+
+}